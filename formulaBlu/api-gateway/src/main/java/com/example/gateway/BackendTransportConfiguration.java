@@ -0,0 +1,21 @@
+package com.example.gateway;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+// Protocol of the gateway's calls to the services. By default they use pooled HTTP/1.1
+// keep-alive. The services also accept HTTP/2 without TLS, so gateway.backend.protocols=H2C sends
+// requests as h2c with prior knowledge instead: headers are HPACK-compressed and a connection
+// carries several requests at once, but long-lived change streams then share the per-connection
+// stream limit with everything else. Measure with loadtest/transport.sh before opting in.
+@Configuration
+public class BackendTransportConfiguration {
+
+    @Bean
+    public HttpClientCustomizer backendProtocols(@Value("${gateway.backend.protocols:HTTP11}") HttpProtocol[] protocols) {
+        return httpClient -> httpClient.protocol(protocols);
+    }
+}
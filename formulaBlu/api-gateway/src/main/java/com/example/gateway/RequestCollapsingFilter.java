@@ -0,0 +1,196 @@
+package com.example.gateway;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Collapses identical GETs that are in flight at the same time into one upstream call.
+// The first request goes through and its body is streamed to its client as it arrives; when
+// identical requests are waiting by then, a copy is kept (up to max-body-size) and handed to
+// them once it is complete. Streams (event streams, NDJSON) and larger bodies are never copied:
+// the waiting requests then make their own calls.
+// Runs right after the LocalResponseCache filter (order -4), so only cache misses get here.
+@Component
+public class RequestCollapsingFilter implements GlobalFilter, Ordered {
+
+    private static final List<String> KEY_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION,
+            HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    // Responses that may never complete, or are meant to be written as they are read
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON);
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${gateway.collapsing.max-body-size:1MB}")
+    private DataSize maxBodySize;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.RANGE)
+                || request.getHeaders().getAccept().stream().anyMatch(RequestCollapsingFilter::isStreaming)) {
+            return chain.filter(exchange);
+        }
+
+        String key = keyOf(request);
+        InFlight call = new InFlight(key);
+        InFlight leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            // Replay the leader's response, or make our own call if it was not captured
+            leader.followers.incrementAndGet();
+            return leader.result.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(captured -> captured.isPresent()
+                            ? replay(captured.get(), exchange.getResponse())
+                            : chain.filter(exchange));
+        }
+
+        return chain.filter(exchange.mutate().response(new CapturingResponse(exchange.getResponse(), call)).build())
+                .doFinally(signal -> call.release());
+    }
+
+    @Override
+    public int getOrder() {
+        return -3;
+    }
+
+    private static boolean isStreaming(MediaType type) {
+        return STREAMING_TYPES.stream().anyMatch(type::equalsTypeAndSubtype);
+    }
+
+    private static String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().toString());
+        for (String header : KEY_HEADERS) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private static Mono<Void> replay(CapturedResponse captured, ServerHttpResponse response) {
+        response.setStatusCode(captured.status());
+        captured.headers().forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().addAll(name, values);
+            }
+        });
+        response.getHeaders().setContentLength(captured.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(captured.body())));
+    }
+
+    private record CapturedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    // One upstream call and the identical requests waiting for it
+    private final class InFlight {
+
+        private final String key;
+
+        private final Sinks.One<CapturedResponse> result = Sinks.one();
+
+        private final AtomicInteger followers = new AtomicInteger();
+
+        InFlight(String key) {
+            this.key = key;
+        }
+
+        void complete(CapturedResponse captured) {
+            inFlight.remove(key, this);
+            result.tryEmitValue(captured);
+        }
+
+        // Not captured: whoever is waiting makes their own call, later requests start a new one
+        void release() {
+            inFlight.remove(key, this);
+            result.tryEmitEmpty();
+        }
+    }
+
+    // Passes the body through as it arrives, keeping a copy only while requests wait for it
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final InFlight call;
+
+        // Null once the body is known not to be captured
+        private ByteArrayOutputStream copy;
+
+        CapturingResponse(ServerHttpResponse delegate, InFlight call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            MediaType contentType = getDelegate().getHeaders().getContentType();
+            if (call.followers.get() == 0 || (contentType != null && isStreaming(contentType))) {
+                call.release();
+                return getDelegate().writeWith(body);
+            }
+            copy = new ByteArrayOutputStream();
+            Flux<DataBuffer> tapped = Flux.<DataBuffer>from(body).doOnNext(this::keep);
+            return getDelegate().writeWith(tapped).doOnSuccess(done -> {
+                if (copy != null) {
+                    call.complete(capture(copy.toByteArray()));
+                }
+            });
+        }
+
+        // Streaming bodies (SSE) are written this way; they are never copied
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            call.release();
+            return getDelegate().writeAndFlushWith(body);
+        }
+
+        private void keep(DataBuffer buffer) {
+            if (copy == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (copy.size() + (long) length > maxBodySize.toBytes()) {
+                copy = null;
+                call.release();
+                return;
+            }
+            ByteBuffer chunk = ByteBuffer.allocate(length);
+            buffer.toByteBuffer(buffer.readPosition(), chunk, 0, length);
+            copy.write(chunk.array(), 0, length);
+        }
+
+        private CapturedResponse capture(byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            getDelegate().getHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                        && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.addAll(name, values);
+                }
+            });
+            return new CapturedResponse(getDelegate().getStatusCode(), headers, body);
+        }
+    }
+}
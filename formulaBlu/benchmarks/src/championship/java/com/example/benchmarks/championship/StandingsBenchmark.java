@@ -0,0 +1,85 @@
+package com.example.benchmarks.championship;
+
+import com.example.championship.dto.Standing;
+import com.example.championship.standings.Finish;
+import com.example.championship.standings.SeasonStandings;
+import com.example.championship.standings.SessionType;
+import com.example.championship.standings.StandingsTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The standings engine on its own, for a modern-sized season: 24 rounds, 20 drivers in 10 teams
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandingsBenchmark {
+
+    private static final int ROUNDS = 24;
+    private static final int DRIVERS = 20;
+    private static final int[] POINTS = {2500, 1800, 1500, 1200, 1000, 800, 600, 400, 200, 100};
+
+    private final Random random = new Random(42);
+    private final List<List<Finish>> classifications = new ArrayList<>();
+    private SeasonStandings season;
+    private StandingsTable drivers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 64; i++) {
+            classifications.add(classification());
+        }
+        season = new SeasonStandings();
+        drivers = new StandingsTable();
+        for (int round = 1; round <= ROUNDS; round++) {
+            List<Finish> classification = classifications.get(round);
+            season.apply(round, SessionType.RACE, classification);
+            classification.forEach(finish -> drivers.record(finish.driverId(), finish.points(), finish.position(), 1));
+        }
+    }
+
+    // A live session resubmitted with a new running order
+    @Benchmark
+    public NavigableMap<Integer, SeasonStandings.Snapshot> resubmitLatestRound() {
+        return season.apply(ROUNDS, SessionType.RACE, nextClassification());
+    }
+
+    // A penalty in the opening round: every later round's snapshot is rebuilt
+    @Benchmark
+    public NavigableMap<Integer, SeasonStandings.Snapshot> correctFirstRound() {
+        return season.apply(1, SessionType.RACE, nextClassification());
+    }
+
+    @Benchmark
+    public List<Standing> readTable() {
+        return drivers.standings();
+    }
+
+    private List<Finish> nextClassification() {
+        return classifications.get(next++ & 63);
+    }
+
+    private List<Finish> classification() {
+        List<Integer> grid = new ArrayList<>();
+        for (int driver = 1; driver <= DRIVERS; driver++) {
+            grid.add(driver);
+        }
+        Collections.shuffle(grid, random);
+        List<Finish> finishes = new ArrayList<>();
+        for (int position = 1; position <= DRIVERS; position++) {
+            int driver = grid.get(position - 1);
+            int points = position <= POINTS.length ? POINTS[position - 1] : 0;
+            finishes.add(new Finish(driver, 100 + (driver + 1) / 2, position, points));
+        }
+        return finishes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.benchmarks.drivers;
+
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Full MVC path: dispatch, argument resolution, service, Jackson and response writing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverEndpointBenchmark {
+
+    private MockMvc mockMvc;
+    private String listEtag;
+
+    @Setup
+    public void setUp(DriversApp app) throws Exception {
+        mockMvc = BenchmarkApplication.mockMvc(app.context);
+        listEtag = mockMvc.perform(get("/api/drivers")).andReturn().getResponse().getHeader("ETag");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getDriversPage() throws Exception {
+        return mockMvc.perform(get("/api/drivers")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getDriversPageNotModified() throws Exception {
+        return mockMvc.perform(get("/api/drivers").header("If-None-Match", listEtag)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getDriverById() throws Exception {
+        long id = 1L + ThreadLocalRandom.current().nextInt(DriverFixtures.HISTORICAL_GRID);
+        return mockMvc.perform(get("/api/drivers/{id}", id)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getDriversByTeam() throws Exception {
+        long teamId = 1L + ThreadLocalRandom.current().nextInt(DriverFixtures.TEAMS);
+        return mockMvc.perform(get("/api/drivers/team/{teamId}", teamId)).andReturn().getResponse();
+    }
+}
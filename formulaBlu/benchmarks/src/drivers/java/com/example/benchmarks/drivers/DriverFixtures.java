@@ -0,0 +1,40 @@
+package com.example.benchmarks.drivers;
+
+import com.example.Driver;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class DriverFixtures {
+
+    // Roughly every driver who has started a championship race since 1950
+    static final int HISTORICAL_GRID = 870;
+    static final int TEAMS = 20;
+
+    private static final String[] NATIONALITIES = {"British", "German", "Dutch", "Spanish", "French", "Italian", "Finnish", "Brazilian"};
+
+    private DriverFixtures() {
+    }
+
+    static List<Driver> drivers(int count, boolean withIds) {
+        List<Driver> drivers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Driver driver = new Driver();
+            if (withIds) {
+                driver.setId((long) i);
+                driver.setVersion(0L);
+            }
+            driver.setFirstName("First" + i);
+            driver.setLastName("Lastname" + i);
+            driver.setNationality(NATIONALITIES[i % NATIONALITIES.length]);
+            driver.setDateOfBirth(LocalDate.of(1930 + i % 75, 1 + i % 12, 1 + i % 28));
+            driver.setDriverNumber(1 + i % 99);
+            driver.setTeamId((long) (1 + i % TEAMS));
+            driver.setBio("Driver " + i + " raced in Formula 1 across several seasons and teams.");
+            driver.setHelmetColor("#" + Integer.toHexString(0x100000 + i * 7919 % 0xEFFFFF));
+            drivers.add(driver);
+        }
+        return drivers;
+    }
+}
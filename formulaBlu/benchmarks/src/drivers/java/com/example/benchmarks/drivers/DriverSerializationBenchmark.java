@@ -0,0 +1,38 @@
+package com.example.benchmarks.drivers;
+
+import com.example.Driver;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverSerializationBenchmark {
+
+    // A team's line-up, a default page and the whole historical grid
+    @Param({"2", "100", "870"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Driver> drivers;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the services
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        drivers = DriverFixtures.drivers(size, true);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(drivers);
+    }
+}
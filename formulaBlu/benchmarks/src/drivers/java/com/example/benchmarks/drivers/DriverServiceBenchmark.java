@@ -0,0 +1,50 @@
+package com.example.benchmarks.drivers;
+
+import com.example.Driver;
+import com.example.DriverService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverServiceBenchmark {
+
+    private DriverService driverService;
+
+    @Setup
+    public void setUp(DriversApp app) {
+        driverService = app.context.getBean(DriverService.class);
+    }
+
+    @Benchmark
+    public Optional<Driver> getDriverById() {
+        return driverService.getDriverById(randomId());
+    }
+
+    @Benchmark
+    public List<Driver> getDriversByTeam() {
+        return driverService.getDriversByTeam(1L + ThreadLocalRandom.current().nextInt(DriverFixtures.TEAMS));
+    }
+
+    @Benchmark
+    public List<Driver> getDriversByNationality() {
+        return driverService.getDriversByNationality("British");
+    }
+
+    @Benchmark
+    public List<Driver> getAllDriversPage() {
+        return driverService.getAllDrivers(randomId() - 1, DriverService.DEFAULT_PAGE_SIZE);
+    }
+
+    private static long randomId() {
+        return 1L + ThreadLocalRandom.current().nextInt(DriverFixtures.HISTORICAL_GRID);
+    }
+}
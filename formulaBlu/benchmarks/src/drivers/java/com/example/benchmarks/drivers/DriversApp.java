@@ -0,0 +1,34 @@
+package com.example.benchmarks.drivers;
+
+import com.example.DriverApplication;
+import com.example.DriverRepository;
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// drivers-api running on H2 and seeded with the historical grid,
+// with the entity cache either enabled (caffeine) or bypassed (none)
+@State(Scope.Benchmark)
+public class DriversApp {
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(DriverApplication.class, "spring.cache.type=" + cache);
+        context.getBean(DriverRepository.class).saveAll(DriverFixtures.drivers(DriverFixtures.HISTORICAL_GRID, false));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
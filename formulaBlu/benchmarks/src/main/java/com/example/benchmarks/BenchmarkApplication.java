@@ -0,0 +1,41 @@
+package com.example.benchmarks;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.stream.Stream;
+
+// Boots a service against an in-memory H2 database with logging and service discovery
+// switched off. The Postgres migrations are skipped and Hibernate generates the schema.
+public final class BenchmarkApplication {
+
+    private static final String[] DEFAULTS = {
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=YEAR",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "eureka.client.enabled=false",
+            "server.port=0",
+            "logging.level.root=WARN"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    // Passed as command-line arguments so they win over the service's application.yml
+    public static ConfigurableApplicationContext start(Class<?> application, String... properties) {
+        String[] args = Stream.concat(Stream.of(DEFAULTS), Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(application).run(args);
+    }
+
+    public static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+}
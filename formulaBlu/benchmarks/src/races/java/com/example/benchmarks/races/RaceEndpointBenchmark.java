@@ -0,0 +1,58 @@
+package com.example.benchmarks.races;
+
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Full MVC path: dispatch, argument resolution, service, Jackson and response writing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaceEndpointBenchmark {
+
+    private MockMvc mockMvc;
+    private String listEtag;
+
+    @Setup
+    public void setUp(RacesApp app) throws Exception {
+        mockMvc = BenchmarkApplication.mockMvc(app.context);
+        listEtag = mockMvc.perform(get("/api/v1/race")).andReturn().getResponse().getHeader("ETag");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getRacesPage() throws Exception {
+        return mockMvc.perform(get("/api/v1/race")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getRacesPageNotModified() throws Exception {
+        return mockMvc.perform(get("/api/v1/race").header("If-None-Match", listEtag)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getRaceById() throws Exception {
+        long id = 1L + ThreadLocalRandom.current().nextInt(RaceFixtures.ALL_TIME_RACES);
+        return mockMvc.perform(get("/api/v1/race/{id}", id)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getSeason() throws Exception {
+        int year = RaceFixtures.FIRST_SEASON + ThreadLocalRandom.current().nextInt(RaceFixtures.SEASONS);
+        return mockMvc.perform(get("/api/v1/race/year/{year}", year)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getSeasonGzip() throws Exception {
+        int year = RaceFixtures.FIRST_SEASON + ThreadLocalRandom.current().nextInt(RaceFixtures.SEASONS);
+        return mockMvc.perform(get("/api/v1/race/year/{year}", year).header("Accept-Encoding", "gzip")).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.benchmarks.races;
+
+import com.example.Race;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class RaceFixtures {
+
+    static final int FIRST_SEASON = 1950;
+    static final int SEASONS = 75;
+    static final int ROUNDS_PER_SEASON = 15;
+    static final int ALL_TIME_RACES = SEASONS * ROUNDS_PER_SEASON;
+
+    private static final String[] CIRCUITS = {"Silverstone", "Monza", "Spa-Francorchamps", "Monaco", "Suzuka", "Interlagos", "Montreal", "Hungaroring"};
+
+    private RaceFixtures() {
+    }
+
+    // Races are laid out season by season, so the first `count` races cover whole seasons
+    static List<Race> races(int count) {
+        List<Race> races = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int year = FIRST_SEASON + i / ROUNDS_PER_SEASON;
+            int round = 1 + i % ROUNDS_PER_SEASON;
+            Race race = new Race("Grand Prix " + round, year, round, LocalDate.of(year, 3, 1).plusWeeks(2L * round));
+            race.setCircuit(CIRCUITS[i % CIRCUITS.length]);
+            races.add(race);
+        }
+        return races;
+    }
+}
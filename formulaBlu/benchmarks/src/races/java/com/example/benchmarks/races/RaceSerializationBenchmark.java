@@ -0,0 +1,38 @@
+package com.example.benchmarks.races;
+
+import com.example.Race;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaceSerializationBenchmark {
+
+    // A season's calendar, a default page and every race since 1950
+    @Param({"24", "100", "1125"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Race> races;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the services
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        races = RaceFixtures.races(size);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(races);
+    }
+}
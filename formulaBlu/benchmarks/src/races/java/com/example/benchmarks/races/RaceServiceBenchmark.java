@@ -0,0 +1,45 @@
+package com.example.benchmarks.races;
+
+import com.example.Race;
+import com.example.RaceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaceServiceBenchmark {
+
+    private RaceService raceService;
+
+    @Setup
+    public void setUp(RacesApp app) {
+        raceService = app.context.getBean(RaceService.class);
+    }
+
+    @Benchmark
+    public Race getRaceById() {
+        return raceService.getRaceById(1L + ThreadLocalRandom.current().nextInt(RaceFixtures.ALL_TIME_RACES));
+    }
+
+    @Benchmark
+    public List<Race> getSeason() {
+        return raceService.getSeason(RaceFixtures.FIRST_SEASON + ThreadLocalRandom.current().nextInt(RaceFixtures.SEASONS));
+    }
+
+    @Benchmark
+    public List<Race> getRacesByCircuit() {
+        return raceService.getRacesByCircuit("Monza");
+    }
+
+    @Benchmark
+    public List<Race> getAllRacesPage() {
+        return raceService.getAllRaces((long) ThreadLocalRandom.current().nextInt(RaceFixtures.ALL_TIME_RACES), RaceService.DEFAULT_PAGE_SIZE);
+    }
+}
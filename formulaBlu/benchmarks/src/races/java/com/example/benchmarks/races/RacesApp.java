@@ -0,0 +1,38 @@
+package com.example.benchmarks.races;
+
+import com.example.Application;
+import com.example.RaceRepository;
+import com.example.SeasonCalendar;
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// races-api running on H2 and seeded with historical data,
+// with the entity and serialized-response caches either enabled (caffeine) or bypassed (none)
+@State(Scope.Benchmark)
+public class RacesApp {
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(Application.class, "spring.cache.type=" + cache,
+                "serialized-cache.max-size=" + (cache.equals("none") ? "0" : "16MB"));
+        context.getBean(RaceRepository.class).saveAll(RaceFixtures.races(RaceFixtures.ALL_TIME_RACES));
+        // Seeded after startup, so the calendar has to pick the races up again
+        context.getBean(SeasonCalendar.class).load();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
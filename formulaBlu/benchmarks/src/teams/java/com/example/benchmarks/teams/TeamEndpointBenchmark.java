@@ -0,0 +1,56 @@
+package com.example.benchmarks.teams;
+
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Full MVC path: dispatch, argument resolution, service, Jackson and response writing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamEndpointBenchmark {
+
+    private MockMvc mockMvc;
+    private String listEtag;
+
+    @Setup
+    public void setUp(TeamsApp app) throws Exception {
+        mockMvc = BenchmarkApplication.mockMvc(app.context);
+        listEtag = mockMvc.perform(get("/api/teams")).andReturn().getResponse().getHeader("ETag");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTeamsPage() throws Exception {
+        return mockMvc.perform(get("/api/teams")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTeamsPageGzip() throws Exception {
+        return mockMvc.perform(get("/api/teams").header("Accept-Encoding", "gzip")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTeamsPageNotModified() throws Exception {
+        return mockMvc.perform(get("/api/teams").header("If-None-Match", listEtag)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTeamById() throws Exception {
+        long id = 1L + ThreadLocalRandom.current().nextInt(TeamFixtures.ALL_TIME_CONSTRUCTORS);
+        return mockMvc.perform(get("/api/teams/{id}", id)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTeamsByNationality() throws Exception {
+        return mockMvc.perform(get("/api/teams/nationality/{nationality}", "British")).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.benchmarks.teams;
+
+import com.example.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class TeamFixtures {
+
+    // Roughly every constructor that has entered a championship race since 1950
+    static final int ALL_TIME_CONSTRUCTORS = 210;
+
+    private static final String[] NATIONALITIES = {"British", "Italian", "German", "French", "Austrian", "American", "Swiss", "Japanese"};
+
+    private TeamFixtures() {
+    }
+
+    static List<Team> teams(int count, boolean withIds) {
+        List<Team> teams = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Team team = new Team();
+            if (withIds) {
+                team.setId((long) i);
+                team.setVersion(0L);
+            }
+            team.setName("Constructor " + i);
+            team.setNationality(NATIONALITIES[i % NATIONALITIES.length]);
+            team.setFoundedYear(1946 + i % 78);
+            team.setTeamPrincipal("Principal " + i);
+            team.setHeadquarters("Headquarters " + i);
+            team.setPrimaryColor("#" + Integer.toHexString(0x100000 + i * 7919 % 0xEFFFFF));
+            team.setSecondaryColor("#" + Integer.toHexString(0x100000 + i * 104729 % 0xEFFFFF));
+            team.setDescription("Constructor " + i + " has competed in the Formula 1 world championship.");
+            team.setWebsite("https://team" + i + ".example.com");
+            teams.add(team);
+        }
+        return teams;
+    }
+}
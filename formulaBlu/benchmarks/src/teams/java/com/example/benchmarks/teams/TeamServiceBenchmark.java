@@ -0,0 +1,50 @@
+package com.example.benchmarks.teams;
+
+import com.example.Team;
+import com.example.TeamService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamServiceBenchmark {
+
+    private TeamService teamService;
+
+    @Setup
+    public void setUp(TeamsApp app) {
+        teamService = app.context.getBean(TeamService.class);
+    }
+
+    @Benchmark
+    public Optional<Team> getTeamById() {
+        return teamService.getTeamById(randomId());
+    }
+
+    @Benchmark
+    public List<Team> getTeamsByNationality() {
+        return teamService.getTeamsByNationality("British");
+    }
+
+    @Benchmark
+    public List<Team> getTeamsByFoundedYear() {
+        return teamService.getTeamsByFoundedYear(1950 + ThreadLocalRandom.current().nextInt(70));
+    }
+
+    @Benchmark
+    public List<Team> getAllTeamsPage() {
+        return teamService.getAllTeams(randomId() - 1, TeamService.DEFAULT_PAGE_SIZE);
+    }
+
+    private static long randomId() {
+        return 1L + ThreadLocalRandom.current().nextInt(TeamFixtures.ALL_TIME_CONSTRUCTORS);
+    }
+}
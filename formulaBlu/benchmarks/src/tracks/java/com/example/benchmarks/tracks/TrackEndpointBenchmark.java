@@ -0,0 +1,56 @@
+package com.example.benchmarks.tracks;
+
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Full MVC path: dispatch, argument resolution, service, Jackson and response writing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackEndpointBenchmark {
+
+    private MockMvc mockMvc;
+    private String listEtag;
+
+    @Setup
+    public void setUp(TracksApp app) throws Exception {
+        mockMvc = BenchmarkApplication.mockMvc(app.context);
+        listEtag = mockMvc.perform(get("/api/tracks")).andReturn().getResponse().getHeader("ETag");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTracksPage() throws Exception {
+        return mockMvc.perform(get("/api/tracks")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTracksPageGzip() throws Exception {
+        return mockMvc.perform(get("/api/tracks").header("Accept-Encoding", "gzip")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTracksPageNotModified() throws Exception {
+        return mockMvc.perform(get("/api/tracks").header("If-None-Match", listEtag)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTrackById() throws Exception {
+        long id = 1L + ThreadLocalRandom.current().nextInt(TrackFixtures.ALL_TIME_CIRCUITS);
+        return mockMvc.perform(get("/api/tracks/{id}", id)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getTracksByCountry() throws Exception {
+        return mockMvc.perform(get("/api/tracks/country/{country}", "Italy")).andReturn().getResponse();
+    }
+}
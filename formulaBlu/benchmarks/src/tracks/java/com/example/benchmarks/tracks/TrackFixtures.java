@@ -0,0 +1,37 @@
+package com.example.benchmarks.tracks;
+
+import com.example.track.Track;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class TrackFixtures {
+
+    // Every circuit that has hosted a championship race since 1950
+    static final int ALL_TIME_CIRCUITS = 77;
+
+    private static final String[] COUNTRIES = {"United Kingdom", "Italy", "Belgium", "Monaco", "Spain", "Japan", "United States", "Brazil"};
+
+    private TrackFixtures() {
+    }
+
+    static List<Track> tracks(int count, boolean withIds) {
+        List<Track> tracks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Track track = new Track();
+            if (withIds) {
+                track.setId((long) i);
+                track.setVersion(0L);
+            }
+            track.setName("Circuit " + i);
+            track.setCountry(COUNTRIES[i % COUNTRIES.length]);
+            track.setCity("City " + i);
+            track.setLength(3.3 + (i % 40) / 10.0);
+            track.setTurns(10 + i % 17);
+            track.setDescription("Circuit " + i + " has hosted Formula 1 Grands Prix.");
+            track.setFirstGrandPrix(1950 + i % 74);
+            tracks.add(track);
+        }
+        return tracks;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.benchmarks.tracks;
+
+import com.example.track.Track;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackSerializationBenchmark {
+
+    // A season's calendar and every circuit since 1950
+    @Param({"24", "77"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Track> tracks;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the services
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tracks = TrackFixtures.tracks(size, true);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tracks);
+    }
+}
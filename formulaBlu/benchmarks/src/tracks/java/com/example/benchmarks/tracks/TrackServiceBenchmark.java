@@ -0,0 +1,45 @@
+package com.example.benchmarks.tracks;
+
+import com.example.track.Track;
+import com.example.track.TrackService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackServiceBenchmark {
+
+    private TrackService trackService;
+
+    @Setup
+    public void setUp(TracksApp app) {
+        trackService = app.context.getBean(TrackService.class);
+    }
+
+    @Benchmark
+    public Optional<Track> getTrackById() {
+        return trackService.getTrackById(randomId());
+    }
+
+    @Benchmark
+    public List<Track> getTracksByCountry() {
+        return trackService.getTracksByCountry("Italy");
+    }
+
+    @Benchmark
+    public List<Track> getAllTracksPage() {
+        return trackService.getAllTracks(0L, TrackService.DEFAULT_PAGE_SIZE);
+    }
+
+    private static long randomId() {
+        return 1L + ThreadLocalRandom.current().nextInt(TrackFixtures.ALL_TIME_CIRCUITS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.benchmarks.tracks;
+
+import com.example.track.TrackApplication;
+import com.example.track.TrackRepository;
+import com.example.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// tracks-api running on H2 and seeded with historical data,
+// with the entity and serialized-response caches either enabled (caffeine) or bypassed (none)
+@State(Scope.Benchmark)
+public class TracksApp {
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(TrackApplication.class, "spring.cache.type=" + cache,
+                "serialized-cache.max-size=" + (cache.equals("none") ? "0" : "16MB"));
+        context.getBean(TrackRepository.class).saveAll(TrackFixtures.tracks(TrackFixtures.ALL_TIME_CIRCUITS, false));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
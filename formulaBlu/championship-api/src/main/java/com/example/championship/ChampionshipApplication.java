@@ -0,0 +1,12 @@
+package com.example.championship;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ChampionshipApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ChampionshipApplication.class, args);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.championship.controller;
+
+import com.example.championship.dto.ClassifiedEntry;
+import com.example.championship.standings.SessionType;
+import com.example.championship.standings.StandingsService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Standings are served as stored by StandingsService, never recomputed per request
+@RestController
+@RequestMapping("/api/championship")
+public class StandingsController {
+
+    private final StandingsService standingsService;
+
+    public StandingsController(StandingsService standingsService) {
+        this.standingsService = standingsService;
+    }
+
+    // Current drivers' table, or as it stood after ?afterRound=
+    @GetMapping("/{season}/drivers")
+    public ResponseEntity<byte[]> getDriverStandings(@PathVariable int season, @RequestParam(required = false) Integer afterRound,
+                                                     WebRequest request) {
+        return serve(standingsService.drivers(season, afterRound), request);
+    }
+
+    @GetMapping("/{season}/constructors")
+    public ResponseEntity<byte[]> getConstructorStandings(@PathVariable int season, @RequestParam(required = false) Integer afterRound,
+                                                          WebRequest request) {
+        return serve(standingsService.constructors(season, afterRound), request);
+    }
+
+    // Submit (or resubmit, e.g. during a live session) a session's classification; [] withdraws it
+    @PutMapping("/{season}/rounds/{round}/{session}")
+    public ResponseEntity<Void> putClassification(@PathVariable int season, @PathVariable int round, @PathVariable String session,
+                                                  @RequestBody List<ClassifiedEntry> entries) {
+        standingsService.record(season, round, SessionType.valueOf(session.toUpperCase(Locale.ROOT)), entries);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidClassification(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // null once a 304 has been written, as in the other services' conditional GETs
+    private static ResponseEntity<byte[]> serve(Optional<StandingsService.Document> document, WebRequest request) {
+        if (document.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(document.get().etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(document.get().body());
+    }
+}
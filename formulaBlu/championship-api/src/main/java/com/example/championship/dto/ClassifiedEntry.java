@@ -0,0 +1,18 @@
+package com.example.championship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// A driver's line of a submitted classification; position is null for drivers not classified
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassifiedEntry {
+    private Long driverId;
+    private Long teamId;
+    private Integer position;
+    private BigDecimal points;
+}
@@ -0,0 +1,16 @@
+package com.example.championship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a drivers' or constructors' table; id is the driver's or the team's
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Standing {
+    private int position;
+    private long id;
+    private double points;
+    private int wins;
+}
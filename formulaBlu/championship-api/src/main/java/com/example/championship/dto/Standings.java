@@ -0,0 +1,17 @@
+package com.example.championship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// A championship table as it stood after the given round
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Standings {
+    private int season;
+    private int round;
+    private List<Standing> standings;
+}
@@ -0,0 +1,44 @@
+package com.example.championship.model;
+
+import com.example.championship.standings.SessionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "classified_result",
+        indexes = @Index(name = "classified_result_session_driver_idx", columnList = "season, round, session, driver_id", unique = true))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassifiedResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classified_result_seq")
+    @SequenceGenerator(name = "classified_result_seq", sequenceName = "classified_result_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer season;
+
+    @Column(nullable = false)
+    private Integer round;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SessionType session;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    private Integer position;
+
+    @Column(nullable = false, precision = 6, scale = 2)
+    private BigDecimal points;
+}
@@ -0,0 +1,57 @@
+package com.example.championship.repository;
+
+import com.example.championship.model.ClassifiedResult;
+import com.example.championship.standings.SessionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ClassifiedResultRepository extends JpaRepository<ClassifiedResult, Long> {
+
+    // A row of session_revision
+    interface SessionRevision {
+
+        int getSeason();
+
+        int getRound();
+
+        String getSession();
+
+        long getRevision();
+    }
+
+    // Replay order: seasons and their rounds in sequence
+    List<ClassifiedResult> findAllByOrderBySeasonAscRoundAscSessionAscPositionAsc();
+
+    List<ClassifiedResult> findBySeasonAndRoundAndSession(int season, int round, SessionType session);
+
+    // One statement, so the old rows are gone before the new ones are inserted
+    @Modifying
+    @Query("delete from ClassifiedResult r where r.season = :season and r.round = :round and r.session = :session")
+    int deleteSession(int season, int round, SessionType session);
+
+    // Held until commit, so revisions are handed out in commit order
+    @Query(value = "select 1 from pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int lockRevisions(long key);
+
+    @Query(value = "select nextval('session_revision_seq')", nativeQuery = true)
+    long nextRevision();
+
+    @Modifying
+    @Query(value = """
+            insert into session_revision (season, round, session, revision)
+            values (:season, :round, :session, :revision)
+            on conflict (season, round, session) do update set revision = excluded.revision
+            """, nativeQuery = true)
+    void markRevised(int season, int round, String session, long revision);
+
+    // Sessions written since the given revision, oldest first
+    @Query(value = "select season, round, session, revision from session_revision where revision > :after order by revision",
+            nativeQuery = true)
+    List<SessionRevision> findRevisedAfter(long after);
+
+    @Query(value = "select coalesce(max(revision), 0) from session_revision", nativeQuery = true)
+    long findLatestRevision();
+}
@@ -0,0 +1,5 @@
+package com.example.championship.standings;
+
+// One driver's line of a classification. Points are in hundredths, position is 0 when not classified.
+public record Finish(long driverId, long teamId, int position, int points) {
+}
@@ -0,0 +1,80 @@
+package com.example.championship.standings;
+
+import com.example.championship.dto.Standing;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// A season's drivers' and constructors' tables, the classifications they were built from, and
+// the tables as they stood after each round. A classification is applied as a delta: whatever
+// was last submitted for the session is taken back and the new lines are added, so a live session
+// can be resubmitted as often as its order changes. Only a correction to an earlier round replays
+// anything, and then only the stored classifications, to rebuild the later rounds' snapshots.
+// Not thread-safe; StandingsService serializes the writes to each season.
+public class SeasonStandings {
+
+    public record Snapshot(int round, List<Standing> drivers, List<Standing> constructors) {
+    }
+
+    private final NavigableMap<Integer, Map<SessionType, List<Finish>>> rounds = new TreeMap<>();
+    private final NavigableMap<Integer, Snapshot> snapshots = new TreeMap<>();
+    private final StandingsTable drivers = new StandingsTable();
+    private final StandingsTable constructors = new StandingsTable();
+
+    // Replaces a session's classification (an empty one withdraws it) and returns the snapshots
+    // from that round on, the only ones that can have changed
+    public NavigableMap<Integer, Snapshot> apply(int round, SessionType session, List<Finish> classification) {
+        Map<SessionType, List<Finish>> sessions = rounds.computeIfAbsent(round, r -> new EnumMap<>(SessionType.class));
+        List<Finish> previous = classification.isEmpty()
+                ? sessions.remove(session)
+                : sessions.put(session, List.copyOf(classification));
+        if (previous != null) {
+            record(drivers, constructors, session, previous, -1);
+        }
+        record(drivers, constructors, session, classification, 1);
+        if (sessions.isEmpty()) {
+            rounds.remove(round);
+            snapshots.remove(round);
+        }
+
+        if (rounds.higherKey(round) != null) {
+            replay(round);
+        } else if (rounds.containsKey(round)) {
+            snapshots.put(round, snapshot(round, drivers, constructors));
+        }
+        return snapshots.tailMap(round, true);
+    }
+
+    public boolean isEmpty() {
+        return rounds.isEmpty();
+    }
+
+    // Rebuilds the snapshots from the given round on; the rounds before it are only added up
+    private void replay(int from) {
+        StandingsTable replayDrivers = new StandingsTable();
+        StandingsTable replayConstructors = new StandingsTable();
+        rounds.forEach((round, sessions) -> {
+            sessions.forEach((session, classification) -> record(replayDrivers, replayConstructors, session, classification, 1));
+            if (round >= from) {
+                snapshots.put(round, snapshot(round, replayDrivers, replayConstructors));
+            }
+        });
+    }
+
+    // Each car scores for its driver and its team. Only Grand Prix finishes count back.
+    private static void record(StandingsTable drivers, StandingsTable constructors, SessionType session,
+                               List<Finish> classification, int sign) {
+        for (Finish finish : classification) {
+            int position = session == SessionType.RACE ? finish.position() : 0;
+            drivers.record(finish.driverId(), finish.points(), position, sign);
+            constructors.record(finish.teamId(), finish.points(), position, sign);
+        }
+    }
+
+    private static Snapshot snapshot(int round, StandingsTable drivers, StandingsTable constructors) {
+        return new Snapshot(round, drivers.standings(), constructors.standings());
+    }
+}
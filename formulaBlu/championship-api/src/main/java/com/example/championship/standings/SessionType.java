@@ -0,0 +1,7 @@
+package com.example.championship.standings;
+
+// Sessions that award championship points. Only Grand Prix finishes count towards the countback.
+public enum SessionType {
+    RACE,
+    SPRINT
+}
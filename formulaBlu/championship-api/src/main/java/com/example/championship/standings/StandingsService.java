@@ -0,0 +1,264 @@
+package com.example.championship.standings;
+
+import com.example.championship.dto.ClassifiedEntry;
+import com.example.championship.dto.Standings;
+import com.example.championship.model.ClassifiedResult;
+import com.example.championship.repository.ClassifiedResultRepository;
+import com.example.championship.repository.ClassifiedResultRepository.SessionRevision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Standings of every season, kept in memory and served as encoded documents. The stored results
+// are replayed once at startup, before the server takes requests. After that each submitted
+// classification is stored, applied to its season as a delta, and only the snapshots it changed
+// are encoded again: a standings read is a lookup and a byte copy, however many results are behind
+// it and however often a live session is resubmitted. Every write also moves its session's
+// revision in session_revision, and a poller thread picks up the sessions other instances revised,
+// within standings.poll-interval, by reloading their rows. A session is only applied at a revision
+// above the one it is at, so local writes and polled ones can arrive in either order.
+@Service
+public class StandingsService implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingsService.class);
+
+    // pg_advisory_xact_lock key, any value no other lock in this database uses
+    private static final long REVISION_LOCK_KEY = 0x7374616e64696e67L;
+
+    public record Document(byte[] body, String etag) {
+    }
+
+    private record RoundDocuments(Document drivers, Document constructors) {
+    }
+
+    private record SessionKey(int season, int round, SessionType session) {
+    }
+
+    private final ClassifiedResultRepository classifiedResultRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pollInterval;
+
+    // Each season is guarded by its own monitor
+    private final Map<Integer, SeasonStandings> seasons = new ConcurrentHashMap<>();
+
+    // Encoded snapshots by season and round, read without locking
+    private final Map<Integer, NavigableMap<Integer, RoundDocuments>> documents = new ConcurrentHashMap<>();
+
+    // Keeps ETags from one run from matching documents of another
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    // Revision each session's classification is at, written under its season's monitor
+    private final Map<SessionKey, Long> revisions = new ConcurrentHashMap<>();
+
+    // Latest revision the poller has read, only touched by the poller once it runs
+    private long polled;
+
+    private volatile boolean running;
+    private Thread poller;
+
+    public StandingsService(ClassifiedResultRepository classifiedResultRepository, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${standings.poll-interval:1s}") Duration pollInterval) {
+        this.classifiedResultRepository = classifiedResultRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+    }
+
+    // The latest revision is read first: whatever is written during the replay is polled again
+    @Override
+    public void afterPropertiesSet() {
+        polled = classifiedResultRepository.findLatestRevision();
+        List<ClassifiedResult> session = new ArrayList<>();
+        for (ClassifiedResult result : classifiedResultRepository.findAllByOrderBySeasonAscRoundAscSessionAscPositionAsc()) {
+            if (!session.isEmpty() && !sameSession(session.getFirst(), result)) {
+                apply(session);
+                session.clear();
+            }
+            session.add(result);
+        }
+        if (!session.isEmpty()) {
+            apply(session);
+        }
+        running = true;
+        poller = Thread.ofPlatform().daemon().name("standings-poller").start(this::poll);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+            poller.join(pollInterval.toMillis());
+        }
+    }
+
+    // Replaces a session's classification; an empty one withdraws it
+    public void record(int season, int round, SessionType session, List<ClassifiedEntry> entries) {
+        if (round < 1) {
+            throw new IllegalArgumentException("Round must be 1 or more");
+        }
+        List<ClassifiedResult> results = validate(season, round, session, entries);
+        SeasonStandings standings = seasons.computeIfAbsent(season, s -> new SeasonStandings());
+        synchronized (standings) {
+            long revision = replaceSession(season, round, session, results);
+            if (advance(new SessionKey(season, round, session), revision)) {
+                publish(season, round, standings.apply(round, session, finishes(results)));
+            }
+        }
+    }
+
+    // Swaps a session's classification for a new one in one transaction and returns its new revision.
+    // The lock is held until commit, so revisions are handed out in commit order.
+    private long replaceSession(int season, int round, SessionType session, List<ClassifiedResult> results) {
+        return transactionTemplate.execute(status -> {
+            classifiedResultRepository.lockRevisions(REVISION_LOCK_KEY);
+            classifiedResultRepository.deleteSession(season, round, session);
+            classifiedResultRepository.saveAll(results);
+            long revision = classifiedResultRepository.nextRevision();
+            classifiedResultRepository.markRevised(season, round, session.name(), revision);
+            return revision;
+        });
+    }
+
+    // The drivers' table after the given round, or after the latest one when round is null
+    public Optional<Document> drivers(int season, Integer afterRound) {
+        return round(season, afterRound).map(RoundDocuments::drivers);
+    }
+
+    public Optional<Document> constructors(int season, Integer afterRound) {
+        return round(season, afterRound).map(RoundDocuments::constructors);
+    }
+
+    private Optional<RoundDocuments> round(int season, Integer afterRound) {
+        NavigableMap<Integer, RoundDocuments> rounds = documents.get(season);
+        if (rounds == null) {
+            return Optional.empty();
+        }
+        Map.Entry<Integer, RoundDocuments> entry = afterRound == null ? rounds.lastEntry() : rounds.floorEntry(afterRound);
+        return entry == null ? Optional.empty() : Optional.of(entry.getValue());
+    }
+
+    private void apply(List<ClassifiedResult> session) {
+        ClassifiedResult first = session.getFirst();
+        SeasonStandings standings = seasons.computeIfAbsent(first.getSeason(), s -> new SeasonStandings());
+        synchronized (standings) {
+            publish(first.getSeason(), first.getRound(), standings.apply(first.getRound(), first.getSession(), finishes(session)));
+        }
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                Thread.sleep(pollInterval);
+                for (SessionRevision revised : classifiedResultRepository.findRevisedAfter(polled)) {
+                    reload(new SessionKey(revised.getSeason(), revised.getRound(), SessionType.valueOf(revised.getSession())),
+                            revised.getRevision());
+                    polled = revised.getRevision();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Standings poll failed, retrying", e);
+            }
+        }
+    }
+
+    // The rows read may already be those of a later revision; that one is then applied again, unchanged
+    private void reload(SessionKey key, long revision) {
+        SeasonStandings standings = seasons.computeIfAbsent(key.season(), s -> new SeasonStandings());
+        synchronized (standings) {
+            if (advance(key, revision)) {
+                List<ClassifiedResult> results = classifiedResultRepository.findBySeasonAndRoundAndSession(
+                        key.season(), key.round(), key.session());
+                publish(key.season(), key.round(), standings.apply(key.round(), key.session(), finishes(results)));
+            }
+        }
+    }
+
+    // Whether revision is newer than the one the session is at, moving the session to it if so
+    private boolean advance(SessionKey key, long revision) {
+        Long current = revisions.get(key);
+        if (current != null && current >= revision) {
+            return false;
+        }
+        revisions.put(key, revision);
+        return true;
+    }
+
+    // Encodes the changed snapshots and drops the ones of rounds that no longer have results
+    private void publish(int season, int from, NavigableMap<Integer, SeasonStandings.Snapshot> changed) {
+        NavigableMap<Integer, RoundDocuments> rounds = documents.computeIfAbsent(season, s -> new ConcurrentSkipListMap<>());
+        rounds.tailMap(from, true).keySet().removeIf(round -> !changed.containsKey(round));
+        changed.forEach((round, snapshot) -> rounds.put(round, new RoundDocuments(
+                document(new Standings(season, round, snapshot.drivers())),
+                document(new Standings(season, round, snapshot.constructors())))));
+    }
+
+    private Document document(Standings standings) {
+        try {
+            return new Document(objectMapper.writeValueAsBytes(standings), "W/\"standings-" + epoch + "-" + version.incrementAndGet() + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<ClassifiedResult> validate(int season, int round, SessionType session, List<ClassifiedEntry> entries) {
+        Set<Long> drivers = new HashSet<>();
+        Set<Integer> positions = new HashSet<>();
+        List<ClassifiedResult> results = new ArrayList<>(entries.size());
+        for (ClassifiedEntry entry : entries) {
+            if (entry.getDriverId() == null || entry.getTeamId() == null || entry.getPoints() == null) {
+                throw new IllegalArgumentException("driverId, teamId and points are required");
+            }
+            if (!drivers.add(entry.getDriverId())) {
+                throw new IllegalArgumentException("Driver " + entry.getDriverId() + " is classified twice");
+            }
+            if (entry.getPosition() != null && (entry.getPosition() < 1 || !positions.add(entry.getPosition()))) {
+                throw new IllegalArgumentException("Invalid or repeated position " + entry.getPosition());
+            }
+            if (entry.getPoints().signum() < 0 || entry.getPoints().stripTrailingZeros().scale() > 2
+                    || entry.getPoints().compareTo(BigDecimal.valueOf(9999)) > 0) {
+                throw new IllegalArgumentException("Points must be between 0 and 9999, in hundredths at most");
+            }
+            results.add(new ClassifiedResult(null, season, round, session, entry.getDriverId(), entry.getTeamId(),
+                    entry.getPosition(), entry.getPoints()));
+        }
+        return results;
+    }
+
+    private static List<Finish> finishes(List<ClassifiedResult> results) {
+        return results.stream()
+                .map(result -> new Finish(result.getDriverId(), result.getTeamId(),
+                        result.getPosition() == null ? 0 : result.getPosition(),
+                        result.getPoints().movePointRight(2).intValueExact()))
+                .toList();
+    }
+
+    private static boolean sameSession(ClassifiedResult a, ClassifiedResult b) {
+        return a.getSeason().equals(b.getSeason()) && a.getRound().equals(b.getRound()) && a.getSession() == b.getSession();
+    }
+}
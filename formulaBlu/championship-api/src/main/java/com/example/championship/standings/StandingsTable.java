@@ -0,0 +1,117 @@
+package com.example.championship.standings;
+
+import com.example.championship.dto.Standing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One championship table, the drivers' or the constructors', of one season. Each competitor gets
+// a slot the first time it appears, and its points and finishing-position counts are primitive
+// arrays indexed by that slot. order lists the slots from first to last and rank is its inverse,
+// so when a finish is added or taken back only that competitor moves, past the ones it now beats
+// or behind the ones that now beat it. Reading the table is one walk over order.
+public class StandingsTable {
+
+    // Finishing positions counted for the tie-break; a tie is always settled well before this
+    static final int COUNTBACK_DEPTH = 30;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    // Hundredths of a point
+    private int[] points = new int[INITIAL_CAPACITY];
+    // Sessions each competitor is classified in; one whose every finish was taken back is not listed
+    private int[] sessions = new int[INITIAL_CAPACITY];
+    // Finishes in each position: finishes[slot * COUNTBACK_DEPTH + position - 1]
+    private int[] finishes = new int[INITIAL_CAPACITY * COUNTBACK_DEPTH];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] rank = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Adds a finish (sign 1) or takes it back (sign -1). Position 0 scores without counting back.
+    public void record(long id, int points, int position, int sign) {
+        int slot = slot(id);
+        this.points[slot] += sign * points;
+        sessions[slot] += sign;
+        if (position > 0 && position <= COUNTBACK_DEPTH) {
+            finishes[slot * COUNTBACK_DEPTH + position - 1] += sign;
+        }
+        reposition(slot);
+    }
+
+    public List<Standing> standings() {
+        List<Standing> standings = new ArrayList<>(size);
+        for (int at = 0; at < size; at++) {
+            int slot = order[at];
+            if (sessions[slot] > 0) {
+                standings.add(new Standing(standings.size() + 1, ids[slot], points[slot] / 100.0,
+                        finishes[slot * COUNTBACK_DEPTH]));
+            }
+        }
+        return standings;
+    }
+
+    // New competitors start last and move up as their first finish is recorded
+    private int slot(long id) {
+        Integer slot = slots.get(id);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        order[size] = size;
+        rank[size] = size;
+        slots.put(id, size);
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        points = Arrays.copyOf(points, capacity);
+        sessions = Arrays.copyOf(sessions, capacity);
+        finishes = Arrays.copyOf(finishes, capacity * COUNTBACK_DEPTH);
+        order = Arrays.copyOf(order, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+    }
+
+    // The rest of the table is in order, so one pass of insertion sort in either direction restores it
+    private void reposition(int slot) {
+        int at = rank[slot];
+        while (at > 0 && ahead(slot, order[at - 1])) {
+            place(order[at - 1], at);
+            at--;
+        }
+        while (at < size - 1 && ahead(order[at + 1], slot)) {
+            place(order[at + 1], at);
+            at++;
+        }
+        place(slot, at);
+    }
+
+    private void place(int slot, int at) {
+        order[at] = slot;
+        rank[slot] = at;
+    }
+
+    // More points first, then more wins, more second places and so on; the id only keeps full ties stable
+    private boolean ahead(int a, int b) {
+        if (points[a] != points[b]) {
+            return points[a] > points[b];
+        }
+        int countbackA = a * COUNTBACK_DEPTH;
+        int countbackB = b * COUNTBACK_DEPTH;
+        for (int position = 0; position < COUNTBACK_DEPTH; position++) {
+            if (finishes[countbackA + position] != finishes[countbackB + position]) {
+                return finishes[countbackA + position] > finishes[countbackB + position];
+            }
+        }
+        return ids[a] < ids[b];
+    }
+}
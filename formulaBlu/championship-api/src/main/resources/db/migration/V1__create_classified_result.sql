@@ -0,0 +1,33 @@
+-- Classified results of every scoring session, as submitted. The standings are derived from
+-- these: they are replayed into memory once at startup and never queried again.
+CREATE SEQUENCE classified_result_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE classified_result (
+    id        bigint       NOT NULL PRIMARY KEY,
+    season    integer      NOT NULL,
+    round     integer      NOT NULL,
+    session   varchar(16)  NOT NULL,
+    driver_id bigint       NOT NULL,
+    team_id   bigint       NOT NULL,
+    -- null for drivers who were not classified
+    position  integer,
+    points    numeric(6,2) NOT NULL
+);
+
+-- One row per driver and session; a resubmitted classification replaces the session's rows
+CREATE UNIQUE INDEX classified_result_session_driver_idx ON classified_result (season, round, session, driver_id);
+
+-- Latest revision of every session ever submitted, withdrawn ones included. Revisions are taken
+-- one at a time under an advisory lock (see StandingsService.replaceSession), so they
+-- increase in commit order: an instance that has seen revision N has seen every write below it.
+CREATE SEQUENCE session_revision_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE session_revision (
+    season   integer     NOT NULL,
+    round    integer     NOT NULL,
+    session  varchar(16) NOT NULL,
+    revision bigint      NOT NULL,
+    PRIMARY KEY (season, round, session)
+);
+
+CREATE INDEX session_revision_revision_idx ON session_revision (revision);
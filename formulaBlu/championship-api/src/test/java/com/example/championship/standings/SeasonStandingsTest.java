@@ -0,0 +1,103 @@
+package com.example.championship.standings;
+
+import com.example.championship.dto.Standing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NavigableMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeasonStandingsTest {
+
+    private static final long RED = 10;
+    private static final long BLUE = 20;
+
+    @Test
+    void snapshotsAddUpRounds() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.RACE, List.of(finish(1, RED, 1, 25), finish(2, BLUE, 2, 18)));
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed =
+                season.apply(2, SessionType.RACE, List.of(finish(2, BLUE, 1, 25), finish(1, RED, 2, 18)));
+
+        assertThat(changed.keySet()).containsExactly(2);
+        assertThat(points(changed.get(2).drivers())).containsExactly(43.0, 43.0);
+        assertThat(changed.get(2).constructors()).extracting(Standing::getId).containsExactly(RED, BLUE);
+    }
+
+    @Test
+    void resubmittedSessionReplacesTheLastOne() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.RACE, List.of(finish(1, RED, 1, 25), finish(2, BLUE, 2, 18)));
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed =
+                season.apply(1, SessionType.RACE, List.of(finish(2, BLUE, 1, 25), finish(1, RED, 2, 18)));
+
+        List<Standing> drivers = changed.get(1).drivers();
+        assertThat(drivers).extracting(Standing::getId).containsExactly(2L, 1L);
+        assertThat(points(drivers)).containsExactly(25.0, 18.0);
+        assertThat(drivers).extracting(Standing::getWins).containsExactly(1, 0);
+    }
+
+    @Test
+    void withdrawnSessionIsTakenBack() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.RACE, List.of(finish(1, RED, 1, 25), finish(2, BLUE, 2, 18)));
+        season.apply(1, SessionType.SPRINT, List.of(finish(2, BLUE, 1, 8), finish(1, RED, 2, 7)));
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed = season.apply(1, SessionType.SPRINT, List.of());
+
+        assertThat(points(changed.get(1).drivers())).containsExactly(25.0, 18.0);
+    }
+
+    @Test
+    void withdrawingTheOnlySessionDropsTheRound() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.RACE, List.of(finish(1, RED, 1, 25)));
+        season.apply(2, SessionType.RACE, List.of(finish(1, RED, 1, 25)));
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed = season.apply(2, SessionType.RACE, List.of());
+
+        assertThat(changed).isEmpty();
+        season.apply(1, SessionType.RACE, List.of());
+        assertThat(season.isEmpty()).isTrue();
+    }
+
+    @Test
+    void correctionToRoundOneRebuildsTheLaterSnapshots() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.RACE, List.of(finish(1, RED, 1, 25), finish(2, BLUE, 2, 18)));
+        season.apply(2, SessionType.RACE, List.of(finish(1, RED, 1, 25), finish(2, BLUE, 2, 18)));
+        season.apply(3, SessionType.RACE, List.of(finish(2, BLUE, 1, 25), finish(1, RED, 2, 18)));
+
+        // Driver 1 is disqualified from round 1
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed =
+                season.apply(1, SessionType.RACE, List.of(finish(2, BLUE, 1, 25), finish(1, RED, 0, 0)));
+
+        assertThat(changed.keySet()).containsExactly(1, 2, 3);
+        assertThat(changed.get(1).drivers()).extracting(Standing::getId).containsExactly(2L, 1L);
+        assertThat(points(changed.get(1).drivers())).containsExactly(25.0, 0.0);
+        assertThat(points(changed.get(2).drivers())).containsExactly(43.0, 25.0);
+        assertThat(changed.get(3).drivers()).extracting(Standing::getId).containsExactly(2L, 1L);
+        assertThat(points(changed.get(3).drivers())).containsExactly(68.0, 43.0);
+        assertThat(changed.get(3).drivers()).extracting(Standing::getWins).containsExactly(2, 1);
+    }
+
+    @Test
+    void sprintWinsDoNotCountBack() {
+        SeasonStandings season = new SeasonStandings();
+        season.apply(1, SessionType.SPRINT, List.of(finish(1, RED, 1, 8), finish(2, BLUE, 2, 7)));
+        NavigableMap<Integer, SeasonStandings.Snapshot> changed =
+                season.apply(1, SessionType.RACE, List.of(finish(2, BLUE, 4, 12), finish(1, RED, 5, 11)));
+
+        List<Standing> drivers = changed.get(1).drivers();
+        assertThat(points(drivers)).containsExactly(19.0, 19.0);
+        // Level on points with no wins; the better Grand Prix finish decides, not the sprint win
+        assertThat(drivers).extracting(Standing::getId).containsExactly(2L, 1L);
+    }
+
+    private static Finish finish(long driverId, long teamId, int position, int points) {
+        return new Finish(driverId, teamId, position, points * 100);
+    }
+
+    private static List<Double> points(List<Standing> standings) {
+        return standings.stream().map(Standing::getPoints).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.championship.standings;
+
+import com.example.championship.dto.Standing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandingsTableTest {
+
+    @Test
+    void ordersByPoints() {
+        StandingsTable table = new StandingsTable();
+        table.record(1, 1800, 2, 1);
+        table.record(2, 2500, 1, 1);
+        table.record(3, 1500, 3, 1);
+
+        assertThat(ids(table.standings())).containsExactly(2L, 1L, 3L);
+        assertThat(table.standings().getFirst().getPoints()).isEqualTo(25.0);
+        assertThat(table.standings().getFirst().getWins()).isEqualTo(1);
+    }
+
+    @Test
+    void breaksTiesOnWinsThenLowerPlaces() {
+        StandingsTable table = new StandingsTable();
+        // 43 points each: one win and a second beats two seconds and a third
+        table.record(1, 1800, 2, 1);
+        table.record(1, 1800, 2, 1);
+        table.record(1, 700, 3, 1);
+        table.record(2, 2500, 1, 1);
+        table.record(2, 1800, 2, 1);
+        // 43 points with no win, but more seconds than competitor 4
+        table.record(3, 2500, 2, 1);
+        table.record(3, 1800, 2, 1);
+        table.record(4, 2500, 2, 1);
+        table.record(4, 1800, 3, 1);
+
+        assertThat(ids(table.standings())).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(table.standings()).extracting(Standing::getPosition).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void fullTiesKeepIdOrder() {
+        StandingsTable table = new StandingsTable();
+        table.record(9, 1000, 4, 1);
+        table.record(5, 1000, 4, 1);
+
+        assertThat(ids(table.standings())).containsExactly(5L, 9L);
+    }
+
+    @Test
+    void unclassifiedFinishesScoreWithoutCountingBack() {
+        StandingsTable table = new StandingsTable();
+        table.record(1, 800, 0, 1);
+        table.record(2, 800, 8, 1);
+
+        assertThat(ids(table.standings())).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void takingBackAFinishMovesTheCompetitorDown() {
+        StandingsTable table = new StandingsTable();
+        table.record(1, 2500, 1, 1);
+        table.record(2, 1800, 2, 1);
+        table.record(1, 2500, 1, -1);
+        table.record(1, 1500, 3, 1);
+
+        assertThat(ids(table.standings())).containsExactly(2L, 1L);
+        assertThat(table.standings().get(1).getWins()).isZero();
+    }
+
+    @Test
+    void competitorWithEveryFinishTakenBackIsNotListed() {
+        StandingsTable table = new StandingsTable();
+        table.record(1, 2500, 1, 1);
+        table.record(2, 1800, 2, 1);
+        table.record(1, 2500, 1, -1);
+
+        assertThat(ids(table.standings())).containsExactly(2L);
+        assertThat(table.standings().getFirst().getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        StandingsTable table = new StandingsTable();
+        for (long id = 1; id <= 100; id++) {
+            table.record(id, (int) id * 100, 0, 1);
+        }
+
+        List<Standing> standings = table.standings();
+        assertThat(standings).hasSize(100);
+        assertThat(standings.getFirst().getId()).isEqualTo(100L);
+        assertThat(standings.getLast().getId()).isEqualTo(1L);
+    }
+
+    private static List<Long> ids(List<Standing> standings) {
+        return standings.stream().map(Standing::getId).toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.feed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-Sent Event subscribers of a change feed. The feed's dispatcher only queues events: each
+// subscriber has a bounded backlog of its own, drained by its own virtual thread, so a slow client
+// never holds up the dispatcher or the other subscribers. A subscriber with a full backlog is passed
+// over and keeps its position; the log is the overflow, and it is read again from there once its
+// backlog has drained. One that has not managed a single send for a while is disconnected, and
+// resumes from Last-Event-ID when it reconnects.
+public class SseSubscribers {
+
+    private static final Logger log = LoggerFactory.getLogger(SseSubscribers.class);
+
+    private final String name;
+
+    private final Runnable drained;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Names the sending threads; drained runs when a subscriber that was passed over has room again
+    public SseSubscribers(String name, Runnable drained) {
+        this.name = name;
+        this.drained = drained;
+    }
+
+    // Starts after the given sequence number
+    public SseEmitter subscribe(long position, int backlog, Duration timeout) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, position, backlog);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.thread = Thread.ofVirtual().name(name + "-subscriber").unstarted(subscriber);
+        subscriber.thread.start();
+        return emitter;
+    }
+
+    public boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    // Starts a read of the log: returns the position to read after, that of the furthest-behind
+    // subscriber with room in its backlog, or head if there is none. Events of the read must then be
+    // published in log order.
+    public long startRead(long head) {
+        long from = head;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.remainingCapacity() > 0) {
+                subscriber.passedOver = false;
+                from = Math.min(from, subscriber.position);
+            }
+        }
+        return from;
+    }
+
+    // Queues the event for every subscriber that has had everything before it. One passed over since
+    // the read started misses the rest of the read too, so that it never skips an event; it is
+    // served again from its own position by a later read.
+    public void publish(long from, long seq, String eventName, Object data) {
+        Set<DataWithMediaType> event = null;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.position >= from && subscriber.position < seq && !subscriber.passedOver) {
+                if (event == null) {
+                    event = SseEmitter.event().id(String.valueOf(seq)).name(eventName).data(data).build();
+                }
+                subscriber.offer(seq, event);
+            }
+        }
+    }
+
+    // Keep-alive comment for subscribers with nothing waiting to be sent
+    public void heartbeat() {
+        Set<DataWithMediaType> comment = SseEmitter.event().comment("").build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.queue.offer(comment);
+            }
+        }
+    }
+
+    // Disconnects subscribers that have had something to send for longer than stalled without a send going through
+    public void disconnectStalled(Duration stalled) {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.isEmpty() && now - subscriber.lastSent > stalled.toNanos()) {
+                log.info("Disconnecting a {} subscriber that has not taken an event for {}", name, stalled);
+                subscriber.close();
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    public void completeAll() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread thread;
+
+        // Sequence number of the last event queued, and whether one was left out for a full backlog since;
+        // written by the dispatcher only
+        private volatile long position;
+        private volatile boolean passedOver;
+
+        private volatile long lastSent = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long position, int backlog) {
+            this.emitter = emitter;
+            this.position = position;
+            this.queue = new ArrayBlockingQueue<>(backlog);
+        }
+
+        void offer(long seq, Set<DataWithMediaType> event) {
+            if (queue.offer(event)) {
+                position = seq;
+            } else {
+                passedOver = true;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // The response is only committed by the first send; don't leave the client waiting a heartbeat
+                emitter.send(SseEmitter.event().comment(""));
+                lastSent = System.nanoTime();
+                while (!closed.get()) {
+                    emitter.send(queue.take());
+                    lastSent = System.nanoTime();
+                    if (passedOver && queue.isEmpty()) {
+                        drained.run();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Can no longer be written to; the client reconnects with Last-Event-ID
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        // Runs once, from whichever of the emitter callbacks, the dispatcher and the sending thread gets here first
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                Thread sender = thread;
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }
+    }
+}
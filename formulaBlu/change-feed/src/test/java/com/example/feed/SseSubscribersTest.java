@@ -0,0 +1,87 @@
+package com.example.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseSubscribersTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    private final CountDownLatch drained = new CountDownLatch(1);
+
+    private final SseSubscribers subscribers = new SseSubscribers("test", drained::countDown);
+
+    @Test
+    void slowSubscriberIsPassedOverWithoutHoldingUpTheOthers() throws InterruptedException {
+        SseEmitter slow = subscribers.subscribe(0, 2, TIMEOUT);
+        subscribers.subscribe(0, 10, TIMEOUT);
+
+        // Sends synchronize on the emitter, so holding it stalls the slow subscriber's sending thread
+        synchronized (slow) {
+            long from = subscribers.startRead(5);
+            assertThat(from).isZero();
+            publish(from, 1, 2);
+            await(() -> subscribers.startRead(5) == 2);
+            publish(subscribers.startRead(5), 3, 4, 5);
+
+            // The other subscriber has had everything; the slow one's backlog is full, so nothing is left to read
+            assertThat(subscribers.startRead(5)).isEqualTo(5);
+        }
+
+        // Once its backlog drains it is read for again from its own position
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscribers.startRead(5)).isBetween(2L, 3L);
+        await(() -> deliverUpTo(5));
+    }
+
+    @Test
+    void subscriberThatTakesNothingIsDisconnected() {
+        SseEmitter stalled = subscribers.subscribe(0, 2, TIMEOUT);
+
+        synchronized (stalled) {
+            publish(0, 1, 2, 3);
+            subscribers.disconnectStalled(Duration.ZERO);
+        }
+
+        assertThat(subscribers.isEmpty()).isTrue();
+    }
+
+    @Test
+    void subscriberStartsAfterItsPosition() {
+        subscribers.subscribe(3, 10, TIMEOUT);
+
+        assertThat(subscribers.startRead(5)).isEqualTo(3);
+        publish(3, 4, 5);
+        assertThat(subscribers.startRead(5)).isEqualTo(5);
+    }
+
+    // What ChangeFeed does with a log holding events 1 to head; true once every subscriber has been given them all
+    private boolean deliverUpTo(long head) {
+        long from = subscribers.startRead(head);
+        for (long seq = from + 1; seq <= head; seq++) {
+            subscribers.publish(from, seq, "upsert", "event " + seq);
+        }
+        return from == head;
+    }
+
+    private void publish(long from, long... seqs) {
+        for (long seq : seqs) {
+            subscribers.publish(from, seq, "upsert", "event " + seq);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
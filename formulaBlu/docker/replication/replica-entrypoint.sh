@@ -0,0 +1,16 @@
+#!/bin/bash
+# Starts a hot standby of $PRIMARY_HOST. On first start the data directory is cloned from the
+# primary with pg_basebackup, which also writes the settings to follow it (-R); later starts
+# resume streaming from where the standby left off.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_basebackup -h "$PRIMARY_HOST" -U postgres -D "$PGDATA" -R -X stream; do
+        echo "Waiting for $PRIMARY_HOST to accept replication connections"
+        rm -rf "${PGDATA:?}"/*
+        sleep 2
+    done
+    chmod 700 "$PGDATA"
+fi
+
+exec postgres
@@ -0,0 +1,65 @@
+package com.example;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Version counter for the whole collection, bumped on every write so list endpoints
+// can answer conditional GETs without querying or serializing anything.
+// The boot epoch keeps ETags from different instances or restarts from colliding.
+// Writes through other instances move it too, once ChangeFeed sees the shared log grow.
+@Component
+public class CollectionVersion {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(0, System.currentTimeMillis()));
+    
+    // Inside a transaction the version moves again once it has completed, so a read that ran
+    // between the write and the commit cannot leave an ETag or cached body on the old rows
+    public void bump() {
+        advance();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advance();
+                }
+            });
+        }
+    }
+    
+    public long version() {
+        return current.get().version();
+    }
+    
+    // When the collection last changed, in epoch millis
+    public long lastModified() {
+        return current.get().lastModified();
+    }
+    
+    // Sets ETag/Last-Modified on the response and returns true if the client copy is still current.
+    // The ETag is weak: it names the collection state, which is sent both plain and gzipped.
+    public boolean checkNotModified(WebRequest request) {
+        Snapshot snapshot = current.get();
+        return request.checkNotModified("W/\"" + epoch + "-" + snapshot.version() + "\"", snapshot.lastModified());
+    }
+    
+    // The same for the reactive profile's handlers
+    public boolean checkNotModified(ServerWebExchange exchange) {
+        Snapshot snapshot = current.get();
+        return exchange.checkNotModified("W/\"" + epoch + "-" + snapshot.version() + "\"", Instant.ofEpochMilli(snapshot.lastModified()));
+    }
+    
+    private void advance() {
+        current.updateAndGet(snapshot -> new Snapshot(snapshot.version() + 1, System.currentTimeMillis()));
+    }
+    
+    private record Snapshot(long version, long lastModified) {
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -15,7 +16,8 @@ import java.time.LocalDate;
 public class Driver {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "drivers_seq")
+    @SequenceGenerator(name = "drivers_seq", sequenceName = "drivers_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -40,4 +42,9 @@ public class Driver {
     
     @Column(name = "helmet_color")
     private String helmetColor;
+    
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
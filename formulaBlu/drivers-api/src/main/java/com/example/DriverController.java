@@ -1,45 +1,166 @@
 package com.example;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/drivers")
 @CrossOrigin(origins = "*")
 public class DriverController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    static final String TEXT_CSV_VALUE = "text/csv";
+    
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
+    // CSV import rows: the header line names the columns, empty cells become null
+    static final ObjectReader CSV_READER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build()
+            .readerFor(Driver.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    
     @Autowired
     private DriverService driverService;
     
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
     @GetMapping
-    public List<Driver> getAllDrivers() {
-        return driverService.getAllDrivers();
+    public ResponseEntity<List<Driver>> getAllDrivers(@RequestParam(defaultValue = "0") Long after,
+                                                      @RequestParam(defaultValue = "" + DriverService.DEFAULT_PAGE_SIZE) int limit,
+                                                      WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        int pageSize = Math.clamp(limit, 1, DriverService.MAX_PAGE_SIZE);
+        List<Driver> drivers = driverService.getAllDrivers(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (drivers.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(drivers.getLast().getId()));
+        }
+        return response.body(drivers);
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDrivers(WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> driverService.streamAllDrivers(driver -> {
+            try {
+                writer.writeValue(out, driver);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+    
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Driver>> getDriversByIds(@RequestParam List<Long> ids, WebRequest request) {
+        if (ids.size() > DriverService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(driverService.getDriversByIds(ids));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Driver> getDriverById(@PathVariable Long id) {
+    public ResponseEntity<Driver> getDriverById(@PathVariable Long id, WebRequest request) {
         Optional<Driver> driver = driverService.getDriverById(id);
+        if (driver.isPresent() && request.checkNotModified("W/\"" + driver.get().getVersion() + "\"")) {
+            return null;
+        }
         return driver.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/nationality/{nationality}")
-    public List<Driver> getDriversByNationality(@PathVariable String nationality) {
+    public List<Driver> getDriversByNationality(@PathVariable String nationality, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return driverService.getDriversByNationality(nationality);
     }
     
     @GetMapping("/team/{teamId}")
-    public List<Driver> getDriversByTeam(@PathVariable Long teamId) {
+    public List<Driver> getDriversByTeam(@PathVariable Long teamId, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return driverService.getDriversByTeam(teamId);
     }
     
     @GetMapping("/search")
-    public List<Driver> searchDriversByName(@RequestParam String name) {
-        return driverService.searchDriversByName(name);
+    public List<Driver> searchDriversByName(@RequestParam String name,
+                                            @RequestParam(defaultValue = "" + DriverService.DEFAULT_SEARCH_LIMIT) int limit,
+                                            WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return driverService.searchDriversByName(name, Math.clamp(limit, 1, DriverService.MAX_SEARCH_LIMIT));
+    }
+    
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long after,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
     }
     
     @PostMapping
@@ -49,19 +170,59 @@ public class DriverController {
     
     @PutMapping("/{id}")
     public ResponseEntity<Driver> updateDriver(@PathVariable Long id, @RequestBody Driver driver) {
-        if (driverService.getDriverById(id).isPresent()) {
-            driver.setId(id);
-            return ResponseEntity.ok(driverService.saveDriver(driver));
-        }
-        return ResponseEntity.notFound().build();
+        return driverService.updateDriver(id, driver)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // JSON merge patch: only the fields present in the body are written, null clears a field.
+    // Send the current version along to have the patch rejected if someone else got there first.
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Driver> patchDriver(@PathVariable Long id, @RequestBody ObjectNode patch) throws JsonProcessingException {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        return driverService.patchDriver(id, objectMapper.treeToValue(patch, Driver.class), fields)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDriver(@PathVariable Long id) {
-        if (driverService.getDriverById(id).isPresent()) {
-            driverService.deleteDriver(id);
+        if (driverService.deleteDriver(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
+    
+    // Bulk import, one driver per line
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Map<String, Integer> importDriversNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Driver> rows = objectMapper.readerFor(Driver.class).readValues(body)) {
+            return Map.of("imported", driverService.importDrivers(rows));
+        }
+    }
+    
+    // Bulk import from CSV with a header row, e.g. firstName,lastName,nationality,dateOfBirth,...
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public Map<String, Integer> importDriversCsv(InputStream body) throws IOException {
+        try (MappingIterator<Driver> rows = CSV_READER.readValues(body)) {
+            return Map.of("imported", driverService.importDrivers(rows));
+        }
+    }
+    
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+    
+    // e.g. a patch that clears a required field
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<Void> handleConstraintViolation() {
+        return ResponseEntity.badRequest().build();
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleStaleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
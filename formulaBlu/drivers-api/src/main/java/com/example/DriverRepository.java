@@ -1,13 +1,51 @@
 package com.example;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, Long> {
     List<Driver> findByNationality(String nationality);
     List<Driver> findByTeamId(Long teamId);
-    List<Driver> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query(value = """
+            select * from drivers d
+            where lower(d.first_name || ' ' || d.last_name) like :pattern
+               or :term <% lower(d.first_name || ' ' || d.last_name)
+            order by word_similarity(:term, lower(d.first_name || ' ' || d.last_name)) desc, d.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Driver> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query(value = """
+            select * from drivers d
+            where lower(d.first_name) like :prefix or lower(d.last_name) like :prefix
+            order by d.last_name, d.first_name, d.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Driver> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of drivers after the given id
+    List<Driver> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor-backed stream over the whole table, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Driver> streamAllByOrderByIdAsc();
+
+    // Single-statement delete, returns the number of rows removed
+    @Modifying
+    @Query("delete from Driver d where d.id = :id")
+    int removeById(@Param("id") Long id);
 }
@@ -1,42 +1,234 @@
 package com.example;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class DriverService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    
+    // Columns a PUT or PATCH writes, keyed by the JSON field that carries the new value
+    private static final List<Column> COLUMNS = List.of(
+            new Column("firstName", "first_name", Driver::getFirstName),
+            new Column("lastName", "last_name", Driver::getLastName),
+            new Column("nationality", "nationality", Driver::getNationality),
+            new Column("dateOfBirth", "date_of_birth", Driver::getDateOfBirth),
+            new Column("driverNumber", "driver_number", Driver::getDriverNumber),
+            new Column("teamId", "team_id", Driver::getTeamId),
+            new Column("bio", "bio", Driver::getBio),
+            new Column("helmetColor", "helmet_color", Driver::getHelmetColor));
+    
     @Autowired
     private DriverRepository driverRepository;
     
-    public List<Driver> getAllDrivers() {
-        return driverRepository.findAll();
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+    
+    @Transactional(readOnly = true)
+    public List<Driver> getAllDrivers(Long after, int limit) {
+        return driverRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+    
+    // Hands every driver to the consumer one at a time and detaches it again,
+    // so the persistence context never holds more than a single row
+    @Transactional(readOnly = true)
+    public void streamAllDrivers(Consumer<Driver> consumer) {
+        try (Stream<Driver> drivers = driverRepository.streamAllByOrderByIdAsc()) {
+            drivers.forEach(driver -> {
+                consumer.accept(driver);
+                entityManager.detach(driver);
+            });
+        }
     }
     
+    @Transactional(readOnly = true)
+    public List<Driver> getDriversByIds(Collection<Long> ids) {
+        return driverRepository.findAllById(ids);
+    }
+    
+    @Cacheable("drivers")
+    @Transactional(readOnly = true)
     public Optional<Driver> getDriverById(Long id) {
         return driverRepository.findById(id);
     }
     
+    @Cacheable("driversByNationality")
+    @Transactional(readOnly = true)
     public List<Driver> getDriversByNationality(String nationality) {
         return driverRepository.findByNationality(nationality);
     }
     
+    @Cacheable("driversByTeam")
+    @Transactional(readOnly = true)
     public List<Driver> getDriversByTeam(Long teamId) {
         return driverRepository.findByTeamId(teamId);
     }
     
-    public List<Driver> searchDriversByName(String name) {
-        return driverRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
+    @Transactional(readOnly = true)
+    public List<Driver> searchDriversByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        if (term.length() < 3) {
+            return driverRepository.searchByNamePrefix(escapeLike(term) + "%", limit);
+        }
+        return driverRepository.searchByName(term, "%" + escapeLike(term) + "%", limit);
     }
     
+    // The previous nationality/team of an updated driver is unknown here, so the derived lists are cleared wholesale
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "drivers", key = "#result.id"),
+            @CacheEvict(cacheNames = {"driversByNationality", "driversByTeam"}, allEntries = true)
+    })
+    @Transactional
     public Driver saveDriver(Driver driver) {
-        return driverRepository.save(driver);
+        Driver saved = driverRepository.save(driver);
+        changeFeed.append(ChangeEvent.Operation.UPSERT, saved.getId(), saved.getVersion());
+        collectionVersion.bump();
+        return saved;
+    }
+    
+    // Replaces every column, empty if there is no such driver
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "drivers", key = "#id"),
+            @CacheEvict(cacheNames = {"driversByNationality", "driversByTeam"}, allEntries = true)
+    })
+    public Optional<Driver> updateDriver(Long id, Driver driver) {
+        return update(id, driver, COLUMNS);
+    }
+    
+    // Writes only the named fields, taking their values from the given driver
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "drivers", key = "#id"),
+            @CacheEvict(cacheNames = {"driversByNationality", "driversByTeam"}, allEntries = true)
+    })
+    public Optional<Driver> patchDriver(Long id, Driver values, Set<String> fields) {
+        return update(id, values, COLUMNS.stream().filter(column -> fields.contains(column.field())).toList());
+    }
+    
+    // Returns false if there was no such driver
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "drivers", key = "#id"),
+            @CacheEvict(cacheNames = {"driversByNationality", "driversByTeam"}, allEntries = true)
+    })
+    public boolean deleteDriver(Long id) {
+        if (driverRepository.removeById(id) == 0) {
+            return false;
+        }
+        changeFeed.append(ChangeEvent.Operation.DELETE, id, null);
+        collectionVersion.bump();
+        return true;
+    }
+    
+    // One statement instead of read-then-merge: writes the columns and bumps the version if the row
+    // exists and, when the caller sent a version, still has it. The new row comes back via RETURNING.
+    // Only a failed versioned write pays for a second query, to tell a stale version from a missing row.
+    @SuppressWarnings("unchecked")
+    private Optional<Driver> update(Long id, Driver values, List<Column> columns) {
+        StringBuilder sql = new StringBuilder("update drivers set ");
+        columns.forEach(column -> sql.append(column.name()).append(" = :").append(column.field()).append(", "));
+        sql.append("version = version + 1 where id = :id");
+        if (values.getVersion() != null) {
+            sql.append(" and version = :version");
+        }
+        Query query = entityManager.createNativeQuery(sql.append(" returning *").toString(), Driver.class)
+                .setParameter("id", id);
+        columns.forEach(column -> query.setParameter(column.field(), column.value().apply(values)));
+        if (values.getVersion() != null) {
+            query.setParameter("version", values.getVersion());
+        }
+        Optional<Driver> updated = ((List<Driver>) query.getResultList()).stream().findFirst();
+        if (updated.isEmpty() && values.getVersion() != null && driverRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Driver " + id + " is no longer at version " + values.getVersion());
+        }
+        updated.ifPresent(driver -> {
+            changeFeed.append(ChangeEvent.Operation.UPSERT, driver.getId(), driver.getVersion());
+            collectionVersion.bump();
+        });
+        return updated;
+    }
+    
+    // Bulk insert. Ids come from the pooled sequence, so Hibernate sends each flush as one
+    // JDBC batch; clearing after every batch keeps memory flat however long the stream is.
+    // All rows go in one transaction: a malformed row rolls the whole import back.
+    @Transactional(rollbackFor = IOException.class)
+    @CacheEvict(cacheNames = {"drivers", "driversByNationality", "driversByTeam"}, allEntries = true)
+    public int importDrivers(MappingIterator<Driver> rows) throws IOException {
+        int imported = 0;
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (rows.hasNextValue()) {
+            Driver driver = rows.nextValue();
+            driver.setId(null);
+            driver.setVersion(null);
+            entityManager.persist(driver);
+            batch.add(driver.getId());
+            if (++imported % batchSize == 0) {
+                flushImportBatch(batch);
+            }
+        }
+        flushImportBatch(batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                collectionVersion.bump();
+            }
+        });
+        return imported;
+    }
+    
+    // Sends the batch's inserts, logs them with one statement and detaches them
+    private void flushImportBatch(List<Long> ids) {
+        entityManager.flush();
+        changeFeed.appendUpserts(ids);
+        entityManager.clear();
+        ids.clear();
+    }
+    
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
-    public void deleteDriver(Long id) {
-        driverRepository.deleteById(id);
+    private record Column(String field, String name, Function<Driver, Object> value) {
     }
 }
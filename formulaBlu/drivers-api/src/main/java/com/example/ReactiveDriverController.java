@@ -0,0 +1,203 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DurationFormat;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// DriverController's API for the reactive profile, with the same paths, ETags and status codes
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/drivers")
+@CrossOrigin(origins = "*")
+public class ReactiveDriverController {
+
+    // Body bytes the import reader may have requested ahead of the rows it has parsed
+    private static final int IMPORT_DEMAND = 16;
+
+    @Autowired
+    private ReactiveDriverService driverService;
+
+    @Autowired
+    private CollectionVersion collectionVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveChangeFeed changeFeed;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Driver>>> getAllDrivers(@RequestParam(defaultValue = "0") Long after,
+                                                            @RequestParam(defaultValue = "" + DriverService.DEFAULT_PAGE_SIZE) int limit,
+                                                            ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        int pageSize = Math.clamp(limit, 1, DriverService.MAX_PAGE_SIZE);
+        return driverService.getAllDrivers(after, pageSize).collectList().map(drivers -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+            if (drivers.size() == pageSize) {
+                response.header(DriverController.NEXT_CURSOR_HEADER, String.valueOf(drivers.getLast().getId()));
+            }
+            return response.body(drivers);
+        });
+    }
+
+    // Each row is encoded and written as it is read, with backpressure from the client down to the database
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Driver>>> streamAllDrivers(ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(driverService.streamAllDrivers()));
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<List<Driver>>> getDriversByIds(@RequestParam List<Long> ids, ServerWebExchange exchange) {
+        if (ids.size() > DriverService.MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return driverService.getDriversByIds(ids).collectList().map(ResponseEntity::ok);
+    }
+
+    // WebFlux answers 304 itself when If-None-Match matches the ETag of the returned entity
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Driver>> getDriverById(@PathVariable Long id) {
+        return driverService.getDriverById(id)
+                .map(driver -> ResponseEntity.ok().eTag("W/\"" + driver.getVersion() + "\"").body(driver))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/nationality/{nationality}")
+    public Mono<List<Driver>> getDriversByNationality(@PathVariable String nationality, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return driverService.getDriversByNationality(nationality).collectList();
+    }
+
+    @GetMapping("/team/{teamId}")
+    public Mono<List<Driver>> getDriversByTeam(@PathVariable Long teamId, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return driverService.getDriversByTeam(teamId).collectList();
+    }
+
+    @GetMapping("/search")
+    public Mono<List<Driver>> searchDriversByName(@RequestParam String name,
+                                                  @RequestParam(defaultValue = "" + DriverService.DEFAULT_SEARCH_LIMIT) int limit,
+                                                  ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return driverService.searchDriversByName(name, Math.clamp(limit, 1, DriverService.MAX_SEARCH_LIMIT)).collectList();
+    }
+
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<ChangeEvent>>> streamChanges(@RequestParam(required = false) Long after,
+                                                                            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeFeed.stream(lastEventId != null ? lastEventId : after));
+    }
+
+    // Long poll, e.g. ?after=42&wait=30s: the events after the given sequence number as a JSON array,
+    // answered as soon as there are any and empty after wait (capped at the stream timeout)
+    @GetMapping(path = "/changes", params = "wait", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ChangeEvent>>> pollChanges(@RequestParam(required = false) Long after, @RequestParam @DurationFormat(style = DurationFormat.Style.SIMPLE) Duration wait) {
+        return changeFeed.poll(after, wait).map(events -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(events));
+    }
+
+    @PostMapping
+    public Mono<Driver> createDriver(@RequestBody Driver driver) {
+        return driverService.saveDriver(driver);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Driver>> updateDriver(@PathVariable Long id, @RequestBody Driver driver) {
+        return driverService.updateDriver(id, driver)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // JSON merge patch: only the fields present in the body are written, null clears a field.
+    // Send the current version along to have the patch rejected if someone else got there first.
+    @PatchMapping(path = "/{id}", consumes = {DriverController.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Driver>> patchDriver(@PathVariable Long id, @RequestBody ObjectNode patch) throws JsonProcessingException {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        return driverService.patchDriver(id, objectMapper.treeToValue(patch, Driver.class), fields)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteDriver(@PathVariable Long id) {
+        return driverService.deleteDriver(id)
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    // Bulk import, one driver per line. The body is parsed as it arrives, on the thread running the import.
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<Map<String, Integer>> importDriversNdjson(@RequestBody Flux<DataBuffer> body) {
+        return driverService.importDrivers(() -> objectMapper.readerFor(Driver.class)
+                        .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)))
+                .map(imported -> Map.of("imported", imported));
+    }
+
+    // Bulk import from CSV with a header row, e.g. firstName,lastName,nationality,dateOfBirth,...
+    @PostMapping(path = "/import", consumes = DriverController.TEXT_CSV_VALUE)
+    public Mono<Map<String, Integer>> importDriversCsv(@RequestBody Flux<DataBuffer> body) {
+        return driverService.importDrivers(() -> DriverController.CSV_READER
+                        .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)))
+                .map(imported -> Map.of("imported", imported));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+
+    // e.g. a patch that clears a required field
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<Void> handleConstraintViolation() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleStaleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
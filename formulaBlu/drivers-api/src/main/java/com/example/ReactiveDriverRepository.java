@@ -0,0 +1,46 @@
+package com.example;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// DriverRepository's reads over R2DBC, for the reactive profile. Writes stay with the JPA repository.
+// R2DBC does not take JPA's @Id for the identifier, so lookups by id are derived queries as well.
+@Repository
+public interface ReactiveDriverRepository extends R2dbcRepository<Driver, Long> {
+    Mono<Driver> findOneById(Long id);
+    Flux<Driver> findByIdIn(Collection<Long> ids);
+    Flux<Driver> findByNationality(String nationality);
+    Flux<Driver> findByTeamId(Long teamId);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query("""
+            select * from drivers d
+            where lower(d.first_name || ' ' || d.last_name) like :pattern
+               or :term <% lower(d.first_name || ' ' || d.last_name)
+            order by word_similarity(:term, lower(d.first_name || ' ' || d.last_name)) desc, d.id
+            limit :limit
+            """)
+    Flux<Driver> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query("""
+            select * from drivers d
+            where lower(d.first_name) like :prefix or lower(d.last_name) like :prefix
+            order by d.last_name, d.first_name, d.id
+            limit :limit
+            """)
+    Flux<Driver> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of drivers after the given id
+    Flux<Driver> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // The whole table in id order, rows decoded as the subscriber asks for them
+    Flux<Driver> findAllByOrderByIdAsc();
+}
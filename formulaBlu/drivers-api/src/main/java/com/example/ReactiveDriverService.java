@@ -0,0 +1,96 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// DriverService for the reactive profile. Reads are R2DBC queries that hold no thread while the
+// database works. Writes call DriverService itself on the jdbc scheduler, so they keep its single
+// transactional path: change log, collection version and cache eviction.
+@Service
+@Profile("reactive")
+public class ReactiveDriverService {
+
+    @Autowired
+    private ReactiveDriverRepository driverRepository;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private Scheduler jdbcScheduler;
+
+    public Flux<Driver> getAllDrivers(Long after, int limit) {
+        return driverRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    public Flux<Driver> streamAllDrivers() {
+        return driverRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Driver> getDriversByIds(Collection<Long> ids) {
+        return driverRepository.findByIdIn(ids);
+    }
+
+    public Mono<Driver> getDriverById(Long id) {
+        return driverRepository.findOneById(id);
+    }
+
+    public Flux<Driver> getDriversByNationality(String nationality) {
+        return driverRepository.findByNationality(nationality);
+    }
+
+    public Flux<Driver> getDriversByTeam(Long teamId) {
+        return driverRepository.findByTeamId(teamId);
+    }
+
+    public Flux<Driver> searchDriversByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return Flux.empty();
+        }
+        if (term.length() < 3) {
+            return driverRepository.searchByNamePrefix(DriverService.escapeLike(term) + "%", limit);
+        }
+        return driverRepository.searchByName(term, "%" + DriverService.escapeLike(term) + "%", limit);
+    }
+
+    public Mono<Driver> saveDriver(Driver driver) {
+        return blocking(() -> driverService.saveDriver(driver));
+    }
+
+    public Mono<Driver> updateDriver(Long id, Driver driver) {
+        return blocking(() -> driverService.updateDriver(id, driver)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Driver> patchDriver(Long id, Driver values, Set<String> fields) {
+        return blocking(() -> driverService.patchDriver(id, values, fields)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Boolean> deleteDriver(Long id) {
+        return blocking(() -> driverService.deleteDriver(id));
+    }
+
+    // Runs on the jdbc scheduler, the rows are read from the request body as the import goes
+    public Mono<Integer> importDrivers(Callable<MappingIterator<Driver>> rows) {
+        return blocking(() -> {
+            try (MappingIterator<Driver> iterator = rows.call()) {
+                return driverService.importDrivers(iterator);
+            }
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,20 @@
+-- Initial schema. IF NOT EXISTS keeps this safe on databases Hibernate created before
+-- migrations were introduced: Flyway baselines those at version 0 and runs this on top.
+CREATE SEQUENCE IF NOT EXISTS drivers_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS drivers (
+    id            bigint       NOT NULL PRIMARY KEY,
+    first_name    varchar(255) NOT NULL,
+    last_name     varchar(255) NOT NULL,
+    nationality   varchar(255) NOT NULL,
+    date_of_birth date,
+    driver_number integer,
+    team_id       bigint,
+    bio           varchar(255),
+    helmet_color  varchar(255),
+    version       bigint       NOT NULL DEFAULT 0
+);
+
+-- Ids come from the pooled sequence (blocks of 50). On databases that predate it, move the
+-- sequence past the ids the old identity column already handed out.
+SELECT setval('drivers_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM drivers_seq))) FROM drivers HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,9 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring and fuzzy name search, matched against the full name
+CREATE INDEX IF NOT EXISTS drivers_full_name_trgm_idx
+    ON drivers USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+
+-- Prefix search for terms too short to form a trigram
+CREATE INDEX IF NOT EXISTS drivers_first_name_prefix_idx ON drivers (lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS drivers_last_name_prefix_idx ON drivers (lower(last_name) text_pattern_ops);
@@ -0,0 +1,120 @@
+#!/bin/bash
+
+# Compares a service on the default platform-thread Tomcat pool, the virtual-threads profile
+# and the reactive profile (WebFlux on Netty with R2DBC reads), in two rounds:
+#   1. throughput, p99 latency and errors of a read path under load
+#   2. many concurrent change-feed streams held open at once: streams served, errors, and the
+#      live JVM threads and resident memory of the service while they are open
+#
+# Prerequisites: the service jar is built (./gradlew :drivers-api:bootJar), its database
+# is running (docker-compose up -d postgres-drivers) and `hey` is on the PATH.
+#
+# Usage: ./loadtest/reactive.sh [service] [path] [concurrency] [duration] [streams]
+
+SERVICE=${1:-drivers-api}
+REQUEST_PATH=${2:-/api/drivers?limit=100}
+CONCURRENCY=${3:-400}
+DURATION=${4:-30s}
+STREAMS=${5:-5000}
+# Streams are closed after this, so each client reconnects several times during the round
+STREAM_TIMEOUT=10s
+
+case $SERVICE in
+    races-api)   PORT=8081; DB=localhost:5432/formula1_races; CHANGES_PATH=/api/v1/race/changes ;;
+    drivers-api) PORT=8082; DB=localhost:5433/formula1_drivers; CHANGES_PATH=/api/drivers/changes ;;
+    teams-api)   PORT=8083; DB=localhost:5434/formula1_teams; CHANGES_PATH=/api/teams/changes ;;
+    tracks-api)  PORT=8084; DB=localhost:5435/formula1_tracks; CHANGES_PATH=/api/tracks/changes ;;
+    *) echo "Unknown service: $SERVICE"; exit 1 ;;
+esac
+
+JAR="$(dirname "$0")/../$SERVICE/build/libs/$SERVICE-1.0-SNAPSHOT.jar"
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found, run ./gradlew :$SERVICE:bootJar first"
+    exit 1
+fi
+command -v hey > /dev/null || { echo "❌ hey is not installed (go install github.com/rakyll/hey@latest)"; exit 1; }
+
+# Every open stream is a socket on both ends
+ulimit -n 65536 2> /dev/null || echo "⚠️  could not raise the open file limit, $STREAMS streams may fail"
+
+PID=
+
+start() {
+    local profile=$1
+    java -jar "$JAR" \
+        --spring.profiles.active="$profile" \
+        --spring.datasource.url="jdbc:postgresql://$DB" \
+        --spring.r2dbc.url="r2dbc:postgresql://$DB" \
+        --change-feed.timeout="$STREAM_TIMEOUT" \
+        --spring.jpa.show-sql=false \
+        --eureka.client.enabled=false > "/tmp/$SERVICE-$profile.log" 2>&1 &
+    PID=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        if ! kill -0 $PID 2> /dev/null; then
+            echo "❌ $SERVICE failed to start, see /tmp/$SERVICE-$profile.log"
+            exit 1
+        fi
+        sleep 1
+    done
+}
+
+stop() {
+    kill $PID
+    wait $PID 2> /dev/null
+}
+
+errors() {
+    awk '/Error distribution/ {found=1; next} found && /\[/ {sum += substr($1, 2)} END {print sum + 0}'
+}
+
+throughput() {
+    local profile=$1
+    start "$profile"
+
+    # Warm up JIT, connection pools and caches before measuring
+    hey -z 10s -c "$CONCURRENCY" "http://localhost:$PORT$REQUEST_PATH" > /dev/null
+    local report
+    report=$(hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT$REQUEST_PATH")
+    stop
+
+    local rps p99
+    rps=$(echo "$report" | awk '/Requests\/sec/ {print $2}')
+    p99=$(echo "$report" | awk '/ 99% in/ {print $3 * 1000}')
+    printf "%-16s %12s %12s %10s\n" "$profile" "$rps" "$p99" "$(echo "$report" | errors)"
+}
+
+streams() {
+    local profile=$1
+    start "$profile"
+
+    local report=/tmp/$SERVICE-$profile-streams.txt
+    hey -z "$DURATION" -c "$STREAMS" -t 30 -H "Accept: text/event-stream" "http://localhost:$PORT$CHANGES_PATH" > "$report" &
+    local load=$!
+
+    # Sample once every stream has had time to connect
+    sleep 15
+    local threads rss
+    threads=$(curl -s "http://localhost:$PORT/actuator/metrics/jvm.threads.live" | grep -o '"value":[0-9.]*' | cut -d: -f2)
+    rss=$(( $(ps -o rss= -p $PID) / 1024 ))
+
+    wait $load
+    stop
+
+    local served
+    served=$(awk '/\[200\]/ {print $2}' "$report")
+    printf "%-16s %12s %10s %12s %10s\n" "$profile" "${served:-0}" "$(errors < "$report")" "${threads%.*}" "$rss"
+}
+
+echo "$SERVICE  GET $REQUEST_PATH  concurrency=$CONCURRENCY  duration=$DURATION"
+printf "%-16s %12s %12s %10s\n" "mode" "req/s" "p99 (ms)" "errors"
+throughput default
+throughput virtual-threads
+throughput reactive
+
+echo
+echo "$SERVICE  GET $CHANGES_PATH  streams=$STREAMS  stream timeout=$STREAM_TIMEOUT  duration=$DURATION"
+printf "%-16s %12s %10s %12s %10s\n" "mode" "streams" "errors" "JVM threads" "RSS (MB)"
+streams default
+streams virtual-threads
+streams reactive
@@ -0,0 +1,99 @@
+#!/bin/bash
+
+# Compares the gateway-to-service hop over HTTP/1.1 and h2c, with and without gzip:
+# bytes per response, throughput and p99 latency of requests sent through the gateway.
+# The gateway passes Accept-Encoding through and the body back as the service encoded it,
+# so the response size seen here is what crossed the hop.
+#
+# Prerequisites: the gateway and service jars are built (./gradlew :api-gateway:bootJar
+# :drivers-api:bootJar), the service's database is running (docker-compose up -d postgres-drivers)
+# and `hey` is on the PATH. Eureka is not needed: the gateway is given a static route.
+#
+# Usage: ./loadtest/transport.sh [service] [path] [concurrency] [duration]
+
+SERVICE=${1:-drivers-api}
+REQUEST_PATH=${2:-/api/drivers?limit=100}
+CONCURRENCY=${3:-100}
+DURATION=${4:-30s}
+GATEWAY_PORT=8080
+
+case $SERVICE in
+    races-api)   PORT=8081; DB_URL=jdbc:postgresql://localhost:5432/formula1_races ;;
+    drivers-api) PORT=8082; DB_URL=jdbc:postgresql://localhost:5433/formula1_drivers ;;
+    teams-api)   PORT=8083; DB_URL=jdbc:postgresql://localhost:5434/formula1_teams ;;
+    tracks-api)  PORT=8084; DB_URL=jdbc:postgresql://localhost:5435/formula1_tracks ;;
+    *) echo "Unknown service: $SERVICE"; exit 1 ;;
+esac
+
+ROOT="$(dirname "$0")/.."
+SERVICE_JAR="$ROOT/$SERVICE/build/libs/$SERVICE-1.0-SNAPSHOT.jar"
+GATEWAY_JAR="$ROOT/api-gateway/build/libs/api-gateway-1.0-SNAPSHOT.jar"
+for jar in "$SERVICE_JAR" "$GATEWAY_JAR"; do
+    if [ ! -f "$jar" ]; then
+        echo "❌ $jar not found, run ./gradlew :$SERVICE:bootJar :api-gateway:bootJar first"
+        exit 1
+    fi
+done
+command -v hey > /dev/null || { echo "❌ hey is not installed (go install github.com/rakyll/hey@latest)"; exit 1; }
+
+wait_healthy() {
+    local pid=$1 port=$2 log=$3
+    until curl -sf "http://localhost:$port/actuator/health" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "❌ process on port $port failed to start, see $log"
+            exit 1
+        fi
+        sleep 1
+    done
+}
+
+java -jar "$SERVICE_JAR" \
+    --spring.datasource.url="$DB_URL" \
+    --spring.jpa.show-sql=false \
+    --eureka.client.enabled=false > "/tmp/$SERVICE-transport.log" 2>&1 &
+SERVICE_PID=$!
+trap 'kill $SERVICE_PID 2> /dev/null' EXIT
+wait_healthy $SERVICE_PID $PORT "/tmp/$SERVICE-transport.log"
+
+measure() {
+    local protocol=$1 encoding=$2
+    local header=()
+    [ "$encoding" = "gzip" ] && header=(-H "Accept-Encoding: gzip")
+    local url="http://localhost:$GATEWAY_PORT$REQUEST_PATH"
+
+    # Warm up JIT and both connection pools before measuring
+    hey -z 10s -c "$CONCURRENCY" "${header[@]}" "$url" > /dev/null
+    local bytes report
+    bytes=$(curl -s -o /dev/null -w '%{size_download}' "${header[@]}" "$url")
+    report=$(hey -z "$DURATION" -c "$CONCURRENCY" "${header[@]}" "$url")
+
+    local rps p99 errors
+    rps=$(echo "$report" | awk '/Requests\/sec/ {print $2}')
+    p99=$(echo "$report" | awk '/ 99% in/ {print $3 * 1000}')
+    errors=$(echo "$report" | awk '/Error distribution/ {found=1; next} found && /\[/ {sum += substr($1, 2)} END {print sum + 0}')
+    printf "%-8s %-10s %12s %12s %12s %10s\n" "$protocol" "$encoding" "$bytes" "$rps" "$p99" "$errors"
+}
+
+run() {
+    local protocol=$1
+    java -jar "$GATEWAY_JAR" \
+        --gateway.backend.protocols="$protocol" \
+        "--spring.cloud.gateway.routes[0].id=bench" \
+        "--spring.cloud.gateway.routes[0].uri=http://localhost:$PORT" \
+        "--spring.cloud.gateway.routes[0].predicates[0]=Path=/api/**" \
+        --spring.cloud.gateway.filter.local-response-cache.enabled=false \
+        --eureka.client.enabled=false > "/tmp/api-gateway-$protocol.log" 2>&1 &
+    local pid=$!
+    wait_healthy $pid $GATEWAY_PORT "/tmp/api-gateway-$protocol.log"
+
+    measure "$protocol" identity
+    measure "$protocol" gzip
+
+    kill $pid
+    wait $pid 2> /dev/null
+}
+
+echo "$SERVICE via api-gateway  GET $REQUEST_PATH  concurrency=$CONCURRENCY  duration=$DURATION"
+printf "%-8s %-10s %12s %12s %12s %10s\n" "hop" "encoding" "bytes" "req/s" "p99 (ms)" "errors"
+run HTTP11
+run H2C
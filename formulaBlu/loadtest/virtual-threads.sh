@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Compares throughput and p99 latency of a service on the default platform-thread
+# Tomcat pool against the virtual-threads profile.
+#
+# Prerequisites: the service jar is built (./gradlew :drivers-api:bootJar), its database
+# is running (docker-compose up -d postgres-drivers) and `hey` is on the PATH.
+#
+# Usage: ./loadtest/virtual-threads.sh [service] [path] [concurrency] [duration]
+
+SERVICE=${1:-drivers-api}
+REQUEST_PATH=${2:-/api/drivers?limit=100}
+CONCURRENCY=${3:-400}
+DURATION=${4:-30s}
+
+case $SERVICE in
+    races-api)   PORT=8081; DB_URL=jdbc:postgresql://localhost:5432/formula1_races ;;
+    drivers-api) PORT=8082; DB_URL=jdbc:postgresql://localhost:5433/formula1_drivers ;;
+    teams-api)   PORT=8083; DB_URL=jdbc:postgresql://localhost:5434/formula1_teams ;;
+    tracks-api)  PORT=8084; DB_URL=jdbc:postgresql://localhost:5435/formula1_tracks ;;
+    *) echo "Unknown service: $SERVICE"; exit 1 ;;
+esac
+
+JAR="$(dirname "$0")/../$SERVICE/build/libs/$SERVICE-1.0-SNAPSHOT.jar"
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found, run ./gradlew :$SERVICE:bootJar first"
+    exit 1
+fi
+command -v hey > /dev/null || { echo "❌ hey is not installed (go install github.com/rakyll/hey@latest)"; exit 1; }
+
+run() {
+    local profile=$1
+    java -jar "$JAR" \
+        --spring.profiles.active="$profile" \
+        --spring.datasource.url="$DB_URL" \
+        --spring.jpa.show-sql=false \
+        --eureka.client.enabled=false > "/tmp/$SERVICE-$profile.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "❌ $SERVICE failed to start, see /tmp/$SERVICE-$profile.log"
+            exit 1
+        fi
+        sleep 1
+    done
+
+    # Warm up JIT, connection pool and caches before measuring
+    hey -z 10s -c "$CONCURRENCY" "http://localhost:$PORT$REQUEST_PATH" > /dev/null
+    local report
+    report=$(hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT$REQUEST_PATH")
+
+    kill $pid
+    wait $pid 2> /dev/null
+
+    local rps p99 errors
+    rps=$(echo "$report" | awk '/Requests\/sec/ {print $2}')
+    p99=$(echo "$report" | awk '/ 99% in/ {print $3 * 1000}')
+    errors=$(echo "$report" | awk '/Error distribution/ {found=1; next} found && /\[/ {sum += substr($1, 2)} END {print sum + 0}')
+    printf "%-16s %12s %12s %10s\n" "$profile" "$rps" "$p99" "$errors"
+}
+
+echo "$SERVICE  GET $REQUEST_PATH  concurrency=$CONCURRENCY  duration=$DURATION"
+printf "%-16s %12s %12s %10s\n" "mode" "req/s" "p99 (ms)" "errors"
+run default
+run virtual-threads
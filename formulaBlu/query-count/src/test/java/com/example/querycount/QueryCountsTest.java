@@ -0,0 +1,49 @@
+package com.example.querycount;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Drives QueryCounter the way Hibernate does, one inspect call per statement, so it runs without a database
+class QueryCountsTest {
+
+    private final QueryCounter inspector = new QueryCounter();
+
+    @Test
+    void countsOnlyStatementsRunWhileTheScopeIsOpen() throws Exception {
+        inspector.inspect("select 1");
+
+        int count = QueryCounts.count(() -> {
+            inspector.inspect("update driver set version = version + 1 where id = ?");
+            inspector.inspect("insert into change_log values (?)");
+        });
+        inspector.inspect("select 1");
+
+        assertThat(count).isEqualTo(2);
+        assertThat(QueryCounter.current()).isZero();
+    }
+
+    @Test
+    void nestedScopesCountTowardsEveryOpenScope() throws Exception {
+        try (QueryCounter.Scope outer = QueryCounter.open()) {
+            inspector.inspect("select 1");
+            assertThat(QueryCounts.count(() -> inspector.inspect("select 2"))).isEqualTo(1);
+            assertThat(outer.count()).isEqualTo(2);
+            assertThat(QueryCounter.current()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void assertAtMostFailsWhenTheActionRunsMore() throws Exception {
+        QueryCounts.assertAtMost(1, () -> inspector.inspect("select 1"));
+
+        assertThatThrownBy(() -> QueryCounts.assertAtMost(1, () -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        }))
+                .isInstanceOf(AssertionError.class)
+                .hasMessage("Expected at most 1 SQL statements but 2 were run");
+        assertThat(QueryCounter.current()).isZero();
+    }
+}
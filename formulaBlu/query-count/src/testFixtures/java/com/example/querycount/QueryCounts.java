@@ -0,0 +1,34 @@
+package com.example.querycount;
+
+// Statement counts for tests, e.g. QueryCounts.assertAtMost(1, () -> mockMvc.perform(get("/api/drivers/1")))
+public final class QueryCounts {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryCounts() {
+    }
+
+    public static int count(Action action) throws Exception {
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            action.run();
+            return scope.count();
+        }
+    }
+
+    public static void assertAtMost(int max, Action action) throws Exception {
+        int count = count(action);
+        if (count > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + count + " were run");
+        }
+    }
+
+    public static void assertExactly(int expected, Action action) throws Exception {
+        int count = count(action);
+        if (count != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + count + " were run");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// One entry of the race change log: which race was written, how, and its version afterwards.
+// Entries are only ever inserted, through ChangeEventRepository.
+@Entity
+@Table(name = "change_log")
+public class ChangeEvent {
+
+    @Id
+    private Long seq;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+
+    // Null for deletes
+    private Long version;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public ChangeEvent() {
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
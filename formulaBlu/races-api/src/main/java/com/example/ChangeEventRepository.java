@@ -0,0 +1,36 @@
+package com.example;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    // Events after the given sequence number, oldest first
+    List<ChangeEvent> findBySeqGreaterThanOrderBySeqAsc(Long after, Limit limit);
+
+    @Query("select coalesce(max(e.seq), 0) from ChangeEvent e")
+    long findLatestSeq();
+
+    @Modifying
+    @Query(value = """
+            insert into change_log (seq, entity_id, operation, version, occurred_at)
+            values (nextval('change_log_seq'), :entityId, :operation, :version, now())
+            """, nativeQuery = true)
+    void append(@Param("entityId") Long entityId, @Param("operation") String operation, @Param("version") Long version);
+
+    // One UPSERT per listed race at its stored version, for bulk writes
+    @Modifying
+    @Query(value = """
+            insert into change_log (seq, entity_id, operation, version, occurred_at)
+            select nextval('change_log_seq'), r.id, 'UPSERT', r.version, now() from race r where r.id in :ids
+            """, nativeQuery = true)
+    void appendUpserts(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,214 @@
+package com.example;
+
+import com.example.feed.SseSubscribers;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Append-only log of race writes, streamed to subscribers as Server-Sent Events.
+// Writes append their event in the same transaction while holding an advisory lock until commit,
+// so sequence numbers are handed out in commit order: once a reader has seen event N, no event
+// below N can still appear. Subscribers resume with ?after= or the standard Last-Event-ID header.
+// One dispatcher thread polls the log (to see writes made by other instances, and woken early by
+// local commits), retires caches and ETags when it has grown and queues each batch for every
+// subscriber that has not had it yet. Subscribers are sent to by threads of their own, see SseSubscribers.
+@Component
+public class ChangeFeed implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // pg_advisory_xact_lock key, any value no other lock in this database uses
+    private static final long LOCK_KEY = 0x6368616e67656c6fL;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ChangeEventRepository changeEventRepository;
+    private final CollectionVersion collectionVersion;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final Duration pollInterval;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final int subscriberBacklog;
+    private final Duration stallTimeout;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private final SseSubscribers subscribers = new SseSubscribers("change-feed", wakeUp::release);
+
+    private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+
+    private final List<Runnable> advanceListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+
+    private Thread dispatcher;
+
+    // End of the log as the dispatcher last read it, -1 before the first read
+    private long observedHead = -1;
+
+    @Autowired
+    public ChangeFeed(ChangeEventRepository changeEventRepository, CollectionVersion collectionVersion,
+                      CacheManager cacheManager, EntityManager entityManager,
+                      @Value("${change-feed.poll-interval}") Duration pollInterval,
+                      @Value("${change-feed.heartbeat}") Duration heartbeat,
+                      @Value("${change-feed.timeout}") Duration timeout,
+                      @Value("${change-feed.subscriber-backlog}") int subscriberBacklog,
+                      @Value("${change-feed.stall-timeout}") Duration stallTimeout) {
+        this.changeEventRepository = changeEventRepository;
+        this.collectionVersion = collectionVersion;
+        this.cacheManager = cacheManager;
+        this.entityManager = entityManager;
+        this.pollInterval = pollInterval;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.subscriberBacklog = subscriberBacklog;
+        this.stallTimeout = stallTimeout;
+    }
+
+    // Both must run inside the writing transaction
+    public void append(ChangeEvent.Operation operation, Long raceId, Long version) {
+        lock();
+        changeEventRepository.append(raceId, operation.name(), version);
+    }
+
+    public void appendUpserts(Collection<Long> raceIds) {
+        if (raceIds.isEmpty()) {
+            return;
+        }
+        lock();
+        changeEventRepository.appendUpserts(raceIds);
+    }
+
+    // Run after every commit that appended to the log, e.g. to wake ReactiveChangeFeed's poller
+    public void onCommit(Runnable listener) {
+        commitListeners.add(listener);
+    }
+
+    // Run on the dispatcher thread whenever it sees the log grow, whichever instance wrote to it,
+    // and on its first read. Listeners keep their own position in the log.
+    public void onAdvance(Runnable listener) {
+        advanceListeners.add(listener);
+    }
+
+    // Starts after the given sequence number, or at the current end of the log if there is none
+    public SseEmitter subscribe(Long after) {
+        SseEmitter emitter = subscribers.subscribe(after != null ? after : changeEventRepository.findLatestSeq(),
+                subscriberBacklog, timeout);
+        wakeUp.release();
+        return emitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform().daemon().name("change-feed").start(this::dispatch);
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher.join(pollInterval.toMillis());
+        }
+        subscribers.completeAll();
+    }
+
+    private void lock() {
+        entityManager.createNativeQuery("select pg_advisory_xact_lock(" + LOCK_KEY + ")").getSingleResult();
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ChangeFeed.this);
+                    if (status == STATUS_COMMITTED) {
+                        wakeUp.release();
+                        commitListeners.forEach(Runnable::run);
+                    }
+                }
+            });
+        }
+    }
+
+    private void dispatch() {
+        long lastBeat = System.nanoTime();
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                long head = changeEventRepository.findLatestSeq();
+                observe(head);
+                if (subscribers.isEmpty()) {
+                    continue;
+                }
+                deliver(head);
+                subscribers.disconnectStalled(stallTimeout);
+                if (System.nanoTime() - lastBeat > heartbeat.toNanos()) {
+                    subscribers.heartbeat();
+                    lastBeat = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Change feed dispatch failed, retrying", e);
+            }
+        }
+    }
+
+    // The log is shared by every instance, so its end moving means the collection changed, whoever
+    // wrote it. Emptying the caches and moving the collection version retires this instance's cached
+    // rows and ETags and encoded bodies for writes made elsewhere, within a poll interval. Local writes
+    // have done so at commit already; writes are rare enough that doing it again costs little.
+    private void observe(long head) {
+        if (head == observedHead) {
+            return;
+        }
+        // Listeners first, so nothing encoded under the new version predates them; a failed one runs
+        // again on the next poll
+        advanceListeners.forEach(Runnable::run);
+        if (observedHead >= 0) {
+            cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+            collectionVersion.bump();
+        }
+        observedHead = head;
+    }
+
+    // Subscribers at the same position share each read, so a write costs one query however many listen
+    private void deliver(long head) {
+        while (true) {
+            long from = subscribers.startRead(head);
+            if (from >= head) {
+                return;
+            }
+            List<ChangeEvent> events = changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(from, Limit.of(BATCH_SIZE));
+            if (events.isEmpty()) {
+                return;
+            }
+            for (ChangeEvent event : events) {
+                subscribers.publish(from, event.getSeq(), event.getOperation().name().toLowerCase(Locale.ROOT), event);
+            }
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.example;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "race_year_round_idx", columnList = "year, round", unique = true))
 public class Race {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "race_seq")
+    @SequenceGenerator(name = "race_seq", sequenceName = "race_seq", allocationSize = 50)
     private Long id;
     private String name;
     private Integer year;
@@ -19,9 +27,22 @@ public class Race {
     private String circuit;
     private LocalDate date;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Race() {
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -62,6 +83,14 @@ public class Race {
         this.date = date;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Race(String name, int year, int round, LocalDate date) {
         this.name = name;
         this.year = year;
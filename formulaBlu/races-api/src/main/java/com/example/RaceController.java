@@ -1,31 +1,137 @@
 package com.example;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("api/v1/race")
 public class RaceController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    // CSV import rows: the header line names the columns, empty cells become null
+    static final ObjectReader CSV_READER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build()
+            .readerFor(Race.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
     private final RaceService raceService;
+    private final CollectionVersion collectionVersion;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
+    private final SerializedResponseCache serializedResponseCache;
 
     @Autowired
-    public RaceController(RaceService raceService) {
+    public RaceController(RaceService raceService, CollectionVersion collectionVersion, ObjectMapper objectMapper,
+                          ChangeFeed changeFeed, SerializedResponseCache serializedResponseCache) {
         this.raceService = raceService;
+        this.collectionVersion = collectionVersion;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+        this.serializedResponseCache = serializedResponseCache;
     }
 
-    // Get all races
+    // Get a page of races, pass the X-Next-Cursor header back as ?after= for the next one
     @GetMapping
-    public List<Race> getAllRaces() {
-        return raceService.getAllRaces();
+    public ResponseEntity<List<Race>> getAllRaces(@RequestParam(defaultValue = "0") Long after,
+                                                  @RequestParam(defaultValue = "" + RaceService.DEFAULT_PAGE_SIZE) int limit,
+                                                  WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        int pageSize = Math.clamp(limit, 1, RaceService.MAX_PAGE_SIZE);
+        List<Race> races = raceService.getAllRaces(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (races.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(races.getLast().getId()));
+        }
+        return response.body(races);
+    }
+
+    // Stream every race as newline-delimited JSON
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRaces(WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> raceService.streamAllRaces(race -> {
+            try {
+                writer.writeValue(out, race);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    // Get several races by ID, e.g. ?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Race>> getRacesByIds(@RequestParam List<Long> ids, WebRequest request) {
+        if (ids.size() > RaceService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(raceService.getRacesByIds(ids));
     }
 
     // Get race by ID
     @GetMapping("/{id}")
-    public Race getRaceById(@PathVariable Long id) {
-        return raceService.getRaceById(id);
+    public Race getRaceById(@PathVariable Long id, WebRequest request) {
+        Race race = raceService.getRaceById(id);
+        if (race != null && request.checkNotModified("W/\"" + race.getVersion() + "\"")) {
+            return null;
+        }
+        return race;
+    }
+
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long after,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
     }
 
     // Create a new race
@@ -34,14 +140,57 @@ public class RaceController {
         return raceService.createRace(race);
     }
 
+    // Bulk import, one race per line. Races whose (year, round) already exists are skipped
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public RaceService.ImportResult importRacesNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Race> rows = objectMapper.readerFor(Race.class).readValues(body)) {
+            return raceService.importRaces(rows);
+        }
+    }
+
+    // Bulk import from CSV with a header row, e.g. name,year,round,circuit,date
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public RaceService.ImportResult importRacesCsv(InputStream body) throws IOException {
+        try (MappingIterator<Race> rows = CSV_READER.readValues(body)) {
+            return raceService.importRaces(rows);
+        }
+    }
+
     // Get races by circuit name
     @GetMapping("/circuit/{circuit}")
-    public List<Race> getRacesByCircuit(@PathVariable String circuit) {
+    public List<Race> getRacesByCircuit(@PathVariable String circuit, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return raceService.getRacesByCircuit(circuit);
     }
 
+    // Served from the encoded bytes until the next write, see SerializedResponseCache
     @GetMapping("/year/{year}")
-    public List<Race> getSeason(@PathVariable Integer year){
-        return raceService.getSeason(year);
+    public ResponseEntity<byte[]> getSeason(@PathVariable Integer year, WebRequest request){
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return serializedResponseCache.respond(serializedResponseCache.get("season:" + year, () -> raceService.getSeason(year)), request);
+    }
+
+    @GetMapping("/year/{year}/round/{round}")
+    public ResponseEntity<Race> getRaceByRound(@PathVariable Integer year, @PathVariable Integer round, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.of(raceService.getRaceByRound(year, round));
+    }
+
+    // Next race on or after ?from= (default today). No collection ETag here: the answer
+    // changes as the date moves on, not only when races are written.
+    @GetMapping("/next")
+    public ResponseEntity<Race> getNextRace(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return ResponseEntity.of(raceService.getNextRace(from != null ? from : LocalDate.now()));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
     }
-}
\ No newline at end of file
+}
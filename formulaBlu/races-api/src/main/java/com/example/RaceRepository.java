@@ -1,10 +1,15 @@
 package com.example;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RaceRepository extends JpaRepository<Race, Long> {
@@ -12,7 +17,13 @@ public interface RaceRepository extends JpaRepository<Race, Long> {
 
     List<Race> findByCircuit(String circuit);
 
-    List<Race> findByYear(Integer year);
+    // Superset of the stored races matching any of the given (year, round) pairs, callers filter exact pairs
+    List<Race> findByYearInAndRoundIn(Collection<Integer> years, Collection<Integer> rounds);
 
-    Optional<Race> findByYearAndRound(Integer year, Integer round);
+    // Keyset pagination: next page of races after the given id
+    List<Race> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor-backed stream over the whole table, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Race> streamAllByOrderByIdAsc();
 }
@@ -1,50 +1,208 @@
 package com.example;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RaceService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final RaceRepository raceRepository;
+    private final CollectionVersion collectionVersion;
+    private final EntityManager entityManager;
+    private final SeasonCalendar seasonCalendar;
+    private final ChangeFeed changeFeed;
+    private final int batchSize;
 
     @Autowired
-    public RaceService(RaceRepository raceRepository) {
+    public RaceService(RaceRepository raceRepository, CollectionVersion collectionVersion, EntityManager entityManager,
+                       SeasonCalendar seasonCalendar, ChangeFeed changeFeed,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
         this.raceRepository = raceRepository;
+        this.collectionVersion = collectionVersion;
+        this.entityManager = entityManager;
+        this.seasonCalendar = seasonCalendar;
+        this.changeFeed = changeFeed;
+        this.batchSize = batchSize;
+    }
+
+    // Get a page of races ordered by id, starting after the given cursor
+    @Transactional(readOnly = true)
+    public List<Race> getAllRaces(Long after, int limit) {
+        return raceRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
     }
 
-    // Get all races
-    public List<Race> getAllRaces() {
-        return raceRepository.findAll();
+    // Stream all races one at a time, detaching each so the persistence context stays flat
+    @Transactional(readOnly = true)
+    public void streamAllRaces(Consumer<Race> consumer) {
+        try (Stream<Race> races = raceRepository.streamAllByOrderByIdAsc()) {
+            races.forEach(race -> {
+                consumer.accept(race);
+                entityManager.detach(race);
+            });
+        }
+    }
+
+    // Get several races by ID in one query
+    @Transactional(readOnly = true)
+    public List<Race> getRacesByIds(Collection<Long> ids) {
+        return raceRepository.findAllById(ids);
     }
 
     // Get race by ID
+    @Cacheable("races")
+    @Transactional(readOnly = true)
     public Race getRaceById(Long id) {
         Optional<Race> race = raceRepository.findById(id);
         return race.orElse(null);
     }
 
-    // Create a new race
+    // Create a new race, the calendar answers the duplicate check and the (year, round) index backs it up
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "races", key = "#result.id"),
+            @CacheEvict(cacheNames = "racesByCircuit", allEntries = true)
+    })
+    @Transactional
     public Race createRace(Race race) {
-        if (raceRepository.findByYearAndRound(race.getYear(), race.getRound()).isEmpty()){
-            return raceRepository.save(race);
+        if (seasonCalendar.round(race.getYear(), race.getRound()).isEmpty()){
+            Race saved = raceRepository.save(race);
+            changeFeed.append(ChangeEvent.Operation.UPSERT, saved.getId(), saved.getVersion());
+            publishOnCommit(saved);
+            return saved;
         }
         throw new IllegalStateException("Race already exists");
     }
 
     // Get races by circuit name (example custom query)
+    @Cacheable("racesByCircuit")
+    @Transactional(readOnly = true)
     public List<Race> getRacesByCircuit(String circuit) {
         return raceRepository.findByCircuit(circuit);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "races", key = "#race.id"),
+            @CacheEvict(cacheNames = "racesByCircuit", allEntries = true)
+    })
+    @Transactional
     public void addRace(Race race) {
-        raceRepository.save(race);
+        Race saved = raceRepository.save(race);
+        changeFeed.append(ChangeEvent.Operation.UPSERT, saved.getId(), saved.getVersion());
+        publishOnCommit(saved);
     }
 
+    // Like importRaces, the calendar and collection version only change once the write has
+    // committed, so a rolled back save never shows up in them
+    private void publishOnCommit(Race saved) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seasonCalendar.put(saved);
+                collectionVersion.bump();
+            }
+        });
+    }
+
+    // Season calendar ordered by round, served from memory
     public List<Race> getSeason(Integer year) {
-        return raceRepository.findByYear(year);
+        return seasonCalendar.season(year);
+    }
+
+    public Optional<Race> getRaceByRound(Integer year, Integer round) {
+        return seasonCalendar.round(year, round);
+    }
+
+    // Next race on or after the given date
+    public Optional<Race> getNextRace(LocalDate from) {
+        return seasonCalendar.nextRace(from);
+    }
+
+    // Bulk insert in batches of batch_size, each sent as one JDBC batch thanks to the pooled
+    // sequence. Every batch costs a single duplicate-check query: rows whose (year, round) is
+    // already stored, or repeated earlier in the stream, are skipped. All rows go in one
+    // transaction; the calendar and collection version only change once it has committed.
+    @Transactional(rollbackFor = IOException.class)
+    @CacheEvict(cacheNames = {"races", "racesByCircuit"}, allEntries = true)
+    public ImportResult importRaces(MappingIterator<Race> rows) throws IOException {
+        List<Race> imported = new ArrayList<>();
+        Set<RoundKey> seen = new HashSet<>();
+        List<Race> batch = new ArrayList<>(batchSize);
+        int skipped = 0;
+        while (rows.hasNextValue()) {
+            batch.add(rows.nextValue());
+            if (batch.size() == batchSize) {
+                skipped += insertBatch(batch, seen, imported);
+                batch.clear();
+            }
+        }
+        skipped += insertBatch(batch, seen, imported);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seasonCalendar.putAll(imported);
+                collectionVersion.bump();
+            }
+        });
+        return new ImportResult(imported.size(), skipped);
+    }
+
+    private int insertBatch(List<Race> batch, Set<RoundKey> seen, List<Race> imported) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> years = batch.stream().map(Race::getYear).collect(Collectors.toSet());
+        Set<Integer> rounds = batch.stream().map(Race::getRound).collect(Collectors.toSet());
+        raceRepository.findByYearInAndRoundIn(years, rounds).forEach(race -> seen.add(RoundKey.of(race)));
+        int skipped = 0;
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Race race : batch) {
+            if (!seen.add(RoundKey.of(race))) {
+                skipped++;
+                continue;
+            }
+            race.setId(null);
+            race.setVersion(null);
+            entityManager.persist(race);
+            imported.add(race);
+            ids.add(race.getId());
+        }
+        entityManager.flush();
+        changeFeed.appendUpserts(ids);
+        entityManager.clear();
+        return skipped;
+    }
+
+    public record ImportResult(int imported, int skipped) {
+    }
+
+    private record RoundKey(Integer year, Integer round) {
+
+        static RoundKey of(Race race) {
+            return new RoundKey(race.getYear(), race.getRound());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// The reactive profile: WebFlux on Netty's event loops, reads through R2DBC, writes through the
+// JPA services on a bounded pool of their own
+@Configuration
+@Profile("reactive")
+public class ReactiveConfiguration {
+
+    // Tomcat is on the classpath for the servlet mode; without this it would also host WebFlux
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // Threads for the blocking JPA writes, one per pooled JDBC connection so none waits for a
+    // connection. Writes beyond that queue here instead of on an event loop.
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${spring.datasource.hikari.maximum-pool-size}") int poolSize) {
+        return Schedulers.newBoundedElastic(poolSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+    }
+
+    // R2DBC maps entities to the tables and columns their JPA annotations name, so there is one mapping
+    @Bean
+    public NamingStrategy jpaNamingStrategy() {
+        return new NamingStrategy() {
+            @Override
+            public String getTableName(Class<?> type) {
+                Table table = type.getAnnotation(Table.class);
+                return table != null && !table.name().isEmpty() ? table.name() : NamingStrategy.super.getTableName(type);
+            }
+
+            @Override
+            public String getColumnName(RelationalPersistentProperty property) {
+                Column column = property.findAnnotation(Column.class);
+                return column != null && !column.name().isEmpty() ? column.name() : NamingStrategy.super.getColumnName(property);
+            }
+        };
+    }
+}
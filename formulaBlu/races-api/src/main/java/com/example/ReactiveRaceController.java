@@ -0,0 +1,173 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DurationFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// RaceController's API for the reactive profile, with the same paths, ETags and status codes
+@RestController
+@Profile("reactive")
+@RequestMapping("api/v1/race")
+public class ReactiveRaceController {
+
+    // Body bytes the import reader may have requested ahead of the rows it has parsed
+    private static final int IMPORT_DEMAND = 16;
+
+    private final ReactiveRaceService raceService;
+    private final CollectionVersion collectionVersion;
+    private final ObjectMapper objectMapper;
+    private final ReactiveChangeFeed changeFeed;
+
+    @Autowired
+    public ReactiveRaceController(ReactiveRaceService raceService, CollectionVersion collectionVersion, ObjectMapper objectMapper,
+                                  ReactiveChangeFeed changeFeed) {
+        this.raceService = raceService;
+        this.collectionVersion = collectionVersion;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+    }
+
+    // Get a page of races, pass the X-Next-Cursor header back as ?after= for the next one
+    @GetMapping
+    public Mono<ResponseEntity<List<Race>>> getAllRaces(@RequestParam(defaultValue = "0") Long after,
+                                                        @RequestParam(defaultValue = "" + RaceService.DEFAULT_PAGE_SIZE) int limit,
+                                                        ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        int pageSize = Math.clamp(limit, 1, RaceService.MAX_PAGE_SIZE);
+        return raceService.getAllRaces(after, pageSize).collectList().map(races -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+            if (races.size() == pageSize) {
+                response.header(RaceController.NEXT_CURSOR_HEADER, String.valueOf(races.getLast().getId()));
+            }
+            return response.body(races);
+        });
+    }
+
+    // Stream every race as newline-delimited JSON, with backpressure from the client down to the database
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Race>>> streamAllRaces(ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(raceService.streamAllRaces()));
+    }
+
+    // Get several races by ID, e.g. ?ids=1,2,3
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<List<Race>>> getRacesByIds(@RequestParam List<Long> ids, ServerWebExchange exchange) {
+        if (ids.size() > RaceService.MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return raceService.getRacesByIds(ids).collectList().map(ResponseEntity::ok);
+    }
+
+    // Get race by ID; WebFlux answers 304 itself when If-None-Match matches the ETag
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Race>> getRaceById(@PathVariable Long id) {
+        return raceService.getRaceById(id)
+                .map(race -> ResponseEntity.ok().eTag("W/\"" + race.getVersion() + "\"").body(race))
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<ChangeEvent>>> streamChanges(@RequestParam(required = false) Long after,
+                                                                            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeFeed.stream(lastEventId != null ? lastEventId : after));
+    }
+
+    // Long poll, e.g. ?after=42&wait=30s: the events after the given sequence number as a JSON array,
+    // answered as soon as there are any and empty after wait (capped at the stream timeout)
+    @GetMapping(path = "/changes", params = "wait", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ChangeEvent>>> pollChanges(@RequestParam(required = false) Long after,
+                                                               @RequestParam @DurationFormat(style = DurationFormat.Style.SIMPLE) Duration wait) {
+        return changeFeed.poll(after, wait).map(events -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(events));
+    }
+
+    // Create a new race
+    @PostMapping
+    public Mono<Race> createRace(@RequestBody Race race) {
+        return raceService.createRace(race);
+    }
+
+    // Bulk import, one race per line. Races whose (year, round) already exists are skipped.
+    // The body is parsed as it arrives, on the thread running the import.
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<RaceService.ImportResult> importRacesNdjson(@RequestBody Flux<DataBuffer> body) {
+        return raceService.importRaces(() -> objectMapper.readerFor(Race.class)
+                .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)));
+    }
+
+    // Bulk import from CSV with a header row, e.g. name,year,round,circuit,date
+    @PostMapping(path = "/import", consumes = RaceController.TEXT_CSV_VALUE)
+    public Mono<RaceService.ImportResult> importRacesCsv(@RequestBody Flux<DataBuffer> body) {
+        return raceService.importRaces(() -> RaceController.CSV_READER
+                .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)));
+    }
+
+    // Get races by circuit name
+    @GetMapping("/circuit/{circuit}")
+    public Mono<List<Race>> getRacesByCircuit(@PathVariable String circuit, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return raceService.getRacesByCircuit(circuit).collectList();
+    }
+
+    // Season calendar ordered by round, from memory
+    @GetMapping("/year/{year}")
+    public Mono<List<Race>> getSeason(@PathVariable Integer year, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return Mono.just(raceService.getSeason(year));
+    }
+
+    @GetMapping("/year/{year}/round/{round}")
+    public Mono<ResponseEntity<Race>> getRaceByRound(@PathVariable Integer year, @PathVariable Integer round, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return Mono.just(ResponseEntity.of(raceService.getRaceByRound(year, round)));
+    }
+
+    // Next race on or after ?from= (default today). No collection ETag here: the answer
+    // changes as the date moves on, not only when races are written.
+    @GetMapping("/next")
+    public ResponseEntity<Race> getNextRace(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return ResponseEntity.of(raceService.getNextRace(from != null ? from : LocalDate.now()));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// RaceRepository's reads over R2DBC, for the reactive profile. Writes stay with the JPA repository.
+// R2DBC does not take JPA's @Id for the identifier, so lookups by id are derived queries as well.
+@Repository
+public interface ReactiveRaceRepository extends R2dbcRepository<Race, Long> {
+
+    Mono<Race> findOneById(Long id);
+
+    Flux<Race> findByIdIn(Collection<Long> ids);
+
+    Flux<Race> findByCircuit(String circuit);
+
+    // Superset of the stored races matching any of the given (year, round) pairs, callers filter exact pairs
+    Flux<Race> findByYearInAndRoundIn(Collection<Integer> years, Collection<Integer> rounds);
+
+    // Keyset pagination: next page of races after the given id
+    Flux<Race> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // The whole table in id order, rows decoded as the subscriber asks for them
+    Flux<Race> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,85 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+// RaceService for the reactive profile. Reads are R2DBC queries that hold no thread while the
+// database works, or come straight from the in-memory SeasonCalendar. Writes call RaceService
+// itself on the jdbc scheduler, so they keep its single transactional path: change log,
+// calendar, collection version and cache eviction.
+@Service
+@Profile("reactive")
+public class ReactiveRaceService {
+
+    private final ReactiveRaceRepository raceRepository;
+    private final RaceService raceService;
+    private final Scheduler jdbcScheduler;
+
+    @Autowired
+    public ReactiveRaceService(ReactiveRaceRepository raceRepository, RaceService raceService, Scheduler jdbcScheduler) {
+        this.raceRepository = raceRepository;
+        this.raceService = raceService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    public Flux<Race> getAllRaces(Long after, int limit) {
+        return raceRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    public Flux<Race> streamAllRaces() {
+        return raceRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Race> getRacesByIds(Collection<Long> ids) {
+        return raceRepository.findByIdIn(ids);
+    }
+
+    public Mono<Race> getRaceById(Long id) {
+        return raceRepository.findOneById(id);
+    }
+
+    public Flux<Race> getRacesByCircuit(String circuit) {
+        return raceRepository.findByCircuit(circuit);
+    }
+
+    public List<Race> getSeason(Integer year) {
+        return raceService.getSeason(year);
+    }
+
+    public Optional<Race> getRaceByRound(Integer year, Integer round) {
+        return raceService.getRaceByRound(year, round);
+    }
+
+    public Optional<Race> getNextRace(LocalDate from) {
+        return raceService.getNextRace(from);
+    }
+
+    public Mono<Race> createRace(Race race) {
+        return blocking(() -> raceService.createRace(race));
+    }
+
+    // Runs on the jdbc scheduler, the rows are read from the request body as the import goes
+    public Mono<RaceService.ImportResult> importRaces(Callable<MappingIterator<Race>> rows) {
+        return blocking(() -> {
+            try (MappingIterator<Race> iterator = rows.call()) {
+                return raceService.importRaces(iterator);
+            }
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// In-memory read model of the race calendar: races grouped by season and ordered by round,
+// plus a date-ordered index for "next race" lookups. Readers work on an immutable snapshot;
+// writes swap in a new one with only the touched seasons rebuilt and the changed races merged
+// into the date index, which is never sorted again as a whole.
+// Loaded once the application is ready, so it also sees races seeded at startup, and then kept
+// current from the change log: local writes are put as they commit, and whenever ChangeFeed sees
+// the log grow the races written since (through any instance) are read back and deleted ones
+// dropped. Reads run in read-write transactions, so with a read replica they come from the primary.
+@Component
+public class SeasonCalendar implements InitializingBean {
+
+    private static final Comparator<Race> BY_ROUND = Comparator.comparing(Race::getRound, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<Race> BY_DATE = Comparator.comparing(Race::getDate).thenComparing(Race::getId);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RaceRepository raceRepository;
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot current = Snapshot.of(List.of());
+
+    // Every race the snapshot holds, by id; only used by writers, under the lock
+    private final Map<Long, Race> byId = new HashMap<>();
+
+    // Last change log entry the calendar reflects, -1 until loaded
+    private long position = -1;
+
+    public SeasonCalendar(RaceRepository raceRepository, ChangeEventRepository changeEventRepository,
+                          ChangeFeed changeFeed, PlatformTransactionManager transactionManager) {
+        this.raceRepository = raceRepository;
+        this.changeEventRepository = changeEventRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        changeFeed.onAdvance(this::refresh);
+    }
+
+    // The end of the log is read first, so every race written after it is refreshed later
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            long head = changeEventRepository.findLatestSeq();
+            byId.clear();
+            raceRepository.findAll().forEach(race -> byId.put(race.getId(), race));
+            current = Snapshot.of(byId.values());
+            position = head;
+        });
+    }
+
+    // Reads back the races written since the last refresh and drops deleted ones, a page of log
+    // entries at a time; within a page the last entry for a race decides which
+    synchronized void refresh() {
+        if (position < 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ChangeEvent> events;
+            do {
+                events = changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(position, Limit.of(BATCH_SIZE));
+                if (events.isEmpty()) {
+                    return;
+                }
+                Map<Long, ChangeEvent.Operation> latest = new HashMap<>();
+                events.forEach(event -> latest.put(event.getEntityId(), event.getOperation()));
+                Set<Long> upserted = idsWith(latest, ChangeEvent.Operation.UPSERT);
+                // A race upserted here but deleted by a later page is not found, and that page removes it
+                apply(raceRepository.findAllById(upserted), idsWith(latest, ChangeEvent.Operation.DELETE));
+                position = events.getLast().getSeq();
+            } while (events.size() == BATCH_SIZE);
+        });
+    }
+
+    // Add or replace a saved race, moving it between seasons if its year changed
+    public void put(Race race) {
+        putAll(List.of(race));
+    }
+
+    // Add many saved races at once, swapping the snapshot a single time
+    public void putAll(Collection<Race> races) {
+        apply(races, Set.of());
+    }
+
+    // Rebuilds the seasons the saved and removed races were or now are in, and merges them into the date index
+    private synchronized void apply(Collection<Race> saved, Set<Long> removed) {
+        Map<Long, Race> added = new LinkedHashMap<>();
+        List<Race> previous = new ArrayList<>();
+        for (Race race : saved) {
+            Race replaced = byId.get(race.getId());
+            if (isOlder(race, replaced)) {
+                continue;
+            }
+            byId.put(race.getId(), race);
+            added.put(race.getId(), race);
+            if (replaced != null) {
+                previous.add(replaced);
+            }
+        }
+        for (Long id : removed) {
+            Race replaced = byId.remove(id);
+            if (replaced != null) {
+                previous.add(replaced);
+            }
+        }
+        if (added.isEmpty() && previous.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>(added.keySet());
+        changed.addAll(removed);
+
+        Snapshot snapshot = current;
+        Map<Integer, Season> seasons = new HashMap<>(snapshot.seasons());
+        Set<Integer> touched = new HashSet<>();
+        added.values().forEach(race -> touched.add(race.getYear()));
+        previous.forEach(race -> touched.add(race.getYear()));
+        for (Integer year : touched) {
+            if (year == null) {
+                continue;
+            }
+            List<Race> races = new ArrayList<>();
+            Season season = seasons.get(year);
+            if (season != null) {
+                season.races().stream().filter(r -> !changed.contains(r.getId())).forEach(races::add);
+            }
+            added.values().stream().filter(race -> year.equals(race.getYear())).forEach(races::add);
+            if (races.isEmpty()) {
+                seasons.remove(year);
+            } else {
+                seasons.put(year, Season.of(races));
+            }
+        }
+        current = new Snapshot(seasons, snapshot.byDate().merge(added.values(), changed));
+    }
+
+    private static Set<Long> idsWith(Map<Long, ChangeEvent.Operation> latest, ChangeEvent.Operation operation) {
+        return latest.entrySet().stream()
+                .filter(entry -> entry.getValue() == operation)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    // A refresh and a local commit can deliver the same race in either order
+    private static boolean isOlder(Race race, Race previous) {
+        return previous != null && previous.getVersion() != null && race.getVersion() != null
+                && race.getVersion() < previous.getVersion();
+    }
+
+    // Races of a season ordered by round, empty if the season is unknown
+    public List<Race> season(Integer year) {
+        Season season = current.seasons().get(year);
+        return season == null ? List.of() : season.races();
+    }
+
+    public Optional<Race> round(Integer year, Integer round) {
+        Season season = current.seasons().get(year);
+        return season == null ? Optional.empty() : Optional.ofNullable(season.byRound().get(round));
+    }
+
+    // First race on or after the given date
+    public Optional<Race> nextRace(LocalDate from) {
+        DateIndex index = current.byDate();
+        long day = from.toEpochDay();
+        int i = Arrays.binarySearch(index.epochDays(), day);
+        if (i < 0) {
+            i = -i - 1;
+        } else {
+            // Several races on one day: binarySearch may land on any of them
+            while (i > 0 && index.epochDays()[i - 1] == day) {
+                i--;
+            }
+        }
+        return i < index.races().length ? Optional.of(index.races()[i]) : Optional.empty();
+    }
+
+    private record Snapshot(Map<Integer, Season> seasons, DateIndex byDate) {
+
+        static Snapshot of(Collection<Race> races) {
+            Map<Integer, List<Race>> grouped = new HashMap<>();
+            races.stream()
+                    .filter(race -> race.getYear() != null)
+                    .forEach(race -> grouped.computeIfAbsent(race.getYear(), year -> new ArrayList<>()).add(race));
+            Map<Integer, Season> seasons = new HashMap<>();
+            grouped.forEach((year, season) -> seasons.put(year, Season.of(season)));
+            return new Snapshot(seasons, DateIndex.of(races));
+        }
+    }
+
+    private record Season(List<Race> races, Map<Integer, Race> byRound) {
+
+        static Season of(List<Race> races) {
+            List<Race> ordered = races.stream().sorted(BY_ROUND).toList();
+            Map<Integer, Race> byRound = new HashMap<>();
+            ordered.stream().filter(race -> race.getRound() != null).forEach(race -> byRound.put(race.getRound(), race));
+            return new Season(ordered, byRound);
+        }
+    }
+
+    // Races sorted by date, with their epoch days alongside for binary search
+    private record DateIndex(Race[] races, long[] epochDays) {
+
+        static DateIndex of(Collection<Race> races) {
+            return ordered(sorted(races));
+        }
+
+        // A copy without the changed races and with the added ones in place, in one pass over the index
+        DateIndex merge(Collection<Race> added, Set<Long> changed) {
+            Race[] inserted = sorted(added);
+            Race[] merged = new Race[races.length + inserted.length];
+            int size = 0;
+            int next = 0;
+            for (Race race : races) {
+                if (changed.contains(race.getId())) {
+                    continue;
+                }
+                while (next < inserted.length && BY_DATE.compare(inserted[next], race) < 0) {
+                    merged[size++] = inserted[next++];
+                }
+                merged[size++] = race;
+            }
+            while (next < inserted.length) {
+                merged[size++] = inserted[next++];
+            }
+            return ordered(Arrays.copyOf(merged, size));
+        }
+
+        private static Race[] sorted(Collection<Race> races) {
+            return races.stream()
+                    .filter(race -> race.getDate() != null)
+                    .sorted(BY_DATE)
+                    .toArray(Race[]::new);
+        }
+
+        private static DateIndex ordered(Race[] ordered) {
+            long[] epochDays = Arrays.stream(ordered).mapToLong(race -> race.getDate().toEpochDay()).toArray();
+            return new DateIndex(ordered, epochDays);
+        }
+    }
+}
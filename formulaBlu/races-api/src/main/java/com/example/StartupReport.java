@@ -0,0 +1,69 @@
+package com.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Logs how long the service took to become ready and which beans took longest to create,
+// counting each bean's own time without the dependencies created inside it.
+// The full step timeline is served at /actuator/startup.
+@Component
+public class StartupReport {
+
+    static final int BUFFER_CAPACITY = 10_000;
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final int SLOWEST_BEANS = 5;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        String slowest = "n/a";
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            slowest = slowestBeans(startup.getBufferedTimeline().getEvents());
+        }
+        log.info("Ready in {} ms, slowest beans: {}", event.getTimeTaken().toMillis(), slowest);
+    }
+
+    private static String slowestBeans(List<TimelineEvent> events) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        return events.stream()
+                .filter(event -> event.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .map(event -> new BeanTime(beanName(event.getStartupStep()),
+                        event.getDuration().minus(childTime.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(BeanTime::self).reversed())
+                .limit(SLOWEST_BEANS)
+                .map(bean -> bean.name() + " " + bean.self().toMillis() + " ms")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    private record BeanTime(String name, Duration self) {
+    }
+}
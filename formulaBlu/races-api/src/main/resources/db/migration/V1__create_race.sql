@@ -0,0 +1,20 @@
+-- Initial schema. IF NOT EXISTS keeps this safe on databases Hibernate created before
+-- migrations were introduced: Flyway baselines those at version 0 and runs this on top.
+CREATE SEQUENCE IF NOT EXISTS race_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS race (
+    id      bigint       NOT NULL PRIMARY KEY,
+    name    varchar(255),
+    year    integer,
+    round   integer,
+    circuit varchar(255),
+    date    date,
+    version bigint       NOT NULL DEFAULT 0
+);
+
+-- One race per season and round, backs the calendar's duplicate check
+CREATE UNIQUE INDEX IF NOT EXISTS race_year_round_idx ON race (year, round);
+
+-- Ids come from the pooled sequence (blocks of 50). On databases that predate it, move the
+-- sequence past the ids the old identity column already handed out.
+SELECT setval('race_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM race_seq))) FROM race HAVING MAX(id) IS NOT NULL;
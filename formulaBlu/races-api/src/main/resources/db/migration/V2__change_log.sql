@@ -0,0 +1,11 @@
+-- Append-only log of race writes behind the /changes stream. Sequence numbers are taken one at
+-- a time under an advisory lock (see ChangeFeed), so they are never cached or pooled.
+CREATE SEQUENCE IF NOT EXISTS change_log_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS change_log (
+    seq         bigint                   NOT NULL PRIMARY KEY,
+    entity_id   bigint                   NOT NULL,
+    operation   varchar(16)              NOT NULL,
+    version     bigint,
+    occurred_at timestamp with time zone NOT NULL
+);
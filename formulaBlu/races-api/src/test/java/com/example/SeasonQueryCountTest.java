@@ -0,0 +1,53 @@
+package com.example;
+
+import com.example.querycount.QueryCounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Season lookups are answered from SeasonCalendar, which a write updates once it has committed
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class SeasonQueryCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void seasonIsServedWithoutAStatement() throws Exception {
+        mockMvc.perform(post("/api/v1/race")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Bahrain Grand Prix","year":2031,"round":1,"circuit":"Sakhir","date":"2031-03-02"}
+                                """))
+                .andExpect(status().is2xxSuccessful());
+
+        QueryCounts.assertAtMost(0, () -> mockMvc.perform(get("/api/v1/race/year/2031"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Bahrain Grand Prix")));
+    }
+}
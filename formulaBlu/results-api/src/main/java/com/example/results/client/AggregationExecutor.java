@@ -0,0 +1,72 @@
+package com.example.results.client;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs the upstream calls of the race results aggregation: session lookups and the batch calls of
+// the driver and team loaders. Its own fixed set of threads and a short queue keep these calls from
+// waiting behind other work, and a burst beyond both is turned away at once rather than queued past
+// the calls' deadline. Each call gets call-timeout from when it starts running, so time spent in
+// the queue only counts against the aggregation's overall deadline. Not an Executor itself, see
+// BatchingConfiguration.
+@Component
+public class AggregationExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+    private final Duration callTimeout;
+
+    public AggregationExecutor(@Value("${results.aggregation.threads:100}") int threads,
+                               @Value("${results.aggregation.queue-capacity:100}") int queueCapacity,
+                               @Value("${results.aggregation.call-timeout:300ms}") Duration callTimeout,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("aggregation-", 0).factory()
+                : Thread.ofPlatform().name("aggregation-", 0).daemon().factory();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.callTimeout = callTimeout;
+    }
+
+    public Duration callTimeout() {
+        return callTimeout;
+    }
+
+    // Throws RejectedExecutionException when every thread is busy and the queue is full
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    // A rejected call completes exceptionally instead of throwing, like one that failed
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                future.orTimeout(callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                try {
+                    future.complete(call.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
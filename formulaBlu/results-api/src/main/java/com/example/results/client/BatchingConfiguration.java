@@ -0,0 +1,43 @@
+package com.example.results.client;
+
+import com.example.results.dto.Driver;
+import com.example.results.dto.Team;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+public class BatchingConfiguration implements DisposableBean {
+
+    @Value("${results.batching.window:5ms}")
+    private Duration window;
+
+    @Value("${results.batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    // Deliberately not a bean: any Executor bean makes Boot back off from creating applicationTaskExecutor
+    private final ScheduledExecutorService batchingScheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("batch-flush").daemon().factory());
+
+    @Bean
+    public BatchingLoader<Driver> driverLoader(DriversApiClient driversApiClient, AggregationExecutor executor) {
+        return new BatchingLoader<>(driversApiClient::getDrivers, Driver::getId, window, maxBatchSize,
+                executor.callTimeout(), batchingScheduler, executor::execute);
+    }
+
+    @Bean
+    public BatchingLoader<Team> teamLoader(TeamsApiClient teamsApiClient, AggregationExecutor executor) {
+        return new BatchingLoader<>(teamsApiClient::getTeams, Team::getId, window, maxBatchSize,
+                executor.callTimeout(), batchingScheduler, executor::execute);
+    }
+
+    @Override
+    public void destroy() {
+        batchingScheduler.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.results.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Coalesces single-id lookups that arrive within a short window into one batch call.
+// Concurrent requests for the same id share a future; ids missing from the batch
+// response complete with null. A batch call that runs longer than call-timeout fails all of its ids.
+public class BatchingLoader<V> {
+
+    private final Function<List<Long>, List<V>> batchCall;
+    private final Function<V, Long> idOf;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration callTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private Map<Long, CompletableFuture<V>> pending = new HashMap<>();
+
+    public BatchingLoader(Function<List<Long>, List<V>> batchCall, Function<V, Long> idOf, Duration window,
+                          int maxBatchSize, Duration callTimeout, ScheduledExecutorService scheduler, Executor executor) {
+        this.batchCall = batchCall;
+        this.idOf = idOf;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.callTimeout = callTimeout;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<V> load(Long id) {
+        CompletableFuture<V> future;
+        Map<Long, CompletableFuture<V>> full = null;
+        synchronized (this) {
+            future = pending.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            if (pending.size() == 1) {
+                Map<Long, CompletableFuture<V>> batch = pending;
+                scheduler.schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void flush(Map<Long, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            // Already dispatched because it filled up before the window closed
+            if (batch != pending) {
+                return;
+            }
+            takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<Long, CompletableFuture<V>> takePending() {
+        Map<Long, CompletableFuture<V>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> call(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void call(Map<Long, CompletableFuture<V>> batch) {
+        batch.values().forEach(future -> future.orTimeout(callTimeout.toNanos(), TimeUnit.NANOSECONDS));
+        try {
+            List<V> values = batchCall.apply(List.copyOf(batch.keySet()));
+            for (V value : values) {
+                CompletableFuture<V> future = batch.get(idOf.apply(value));
+                if (future != null) {
+                    future.complete(value);
+                }
+            }
+            batch.values().forEach(future -> future.complete(null));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
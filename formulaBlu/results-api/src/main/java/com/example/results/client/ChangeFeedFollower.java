@@ -0,0 +1,163 @@
+package com.example.results.client;
+
+import com.example.results.dto.ChangeEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Follows one service's /changes stream (Server-Sent Events) on its own thread.
+// A connection without a position starts at the end of the log and only then calls reload, so no
+// write can fall between the snapshot and the stream. The feed cannot report where its end is, so
+// until the first event has been applied a reconnect reloads again. Events are handed to apply in
+// batches: whatever has arrived by the time the stream goes quiet, up to MAX_BATCH, so a bulk import
+// upstream turns into a few batch lookups rather than one per row. If apply throws, the stream is
+// reopened after the last applied event and the batch is delivered again.
+public class ChangeFeedFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedFollower.class);
+
+    private static final int MAX_BATCH = 500;
+
+    private final String name;
+    private final Function<Long, Response> subscribe;
+    private final Runnable reload;
+    private final Consumer<List<ChangeEvent>> apply;
+    private final ObjectMapper objectMapper;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private volatile InputStream current;
+    private Thread thread;
+    private Long position;
+
+    public ChangeFeedFollower(String name, Function<Long, Response> subscribe, Runnable reload,
+                              Consumer<List<ChangeEvent>> apply, ObjectMapper objectMapper, Duration retryDelay) {
+        this.name = name;
+        this.subscribe = subscribe;
+        this.reload = reload;
+        this.apply = apply;
+        this.objectMapper = objectMapper;
+        this.retryDelay = retryDelay;
+    }
+
+    // Reads an NDJSON response to the end
+    public static <T> List<T> readAll(Response response, Class<T> type, ObjectMapper objectMapper) {
+        try (response) {
+            if (response.status() != 200) {
+                throw new IllegalStateException(response.request().url() + " returned " + response.status());
+            }
+            try (MappingIterator<T> values = objectMapper.readerFor(type).readValues(response.body().asInputStream())) {
+                return values.readAll();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name(name + "-changes").start(this::follow);
+    }
+
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            // A blocked read only returns once the connection is gone
+            InputStream body = current;
+            if (body != null) {
+                disconnect(body);
+            }
+            thread.join(retryDelay.toMillis());
+        }
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                stream();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("{} change feed interrupted ({}), reconnecting in {}", name, e.getMessage(), retryDelay);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void stream() throws IOException {
+        Response response = subscribe.apply(position);
+        InputStream body = null;
+        try {
+            if (response.status() != 200) {
+                throw new IllegalStateException("status " + response.status());
+            }
+            body = response.body().asInputStream();
+            current = body;
+            if (position == null) {
+                reload.run();
+            }
+            read(body);
+        } finally {
+            current = null;
+            if (body != null) {
+                disconnect(body);
+            }
+            response.close();
+        }
+    }
+
+    // Closing a body that was not read to the end makes Apache HttpClient read the rest so the
+    // connection can be reused, which never finishes on an open stream; the connection is dropped instead
+    private static void disconnect(InputStream body) {
+        try {
+            if (body instanceof EofSensorInputStream stream) {
+                stream.abort();
+            } else {
+                body.close();
+            }
+        } catch (IOException ignored) {
+            // The connection is gone either way
+        }
+    }
+
+    // Only data lines matter: the event itself carries seq and operation. Comments are heartbeats.
+    private void read(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<ChangeEvent> batch = new ArrayList<>();
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("data:")) {
+                data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+            } else if (line.isEmpty() && !data.isEmpty()) {
+                batch.add(objectMapper.readValue(data.toString(), ChangeEvent.class));
+                data.setLength(0);
+                if (batch.size() >= MAX_BATCH || !reader.ready()) {
+                    apply.accept(List.copyOf(batch));
+                    position = batch.getLast().getSeq();
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package com.example.results.client;
 
 import com.example.results.dto.Driver;
+import com.example.results.dto.DriverStats;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "drivers-api", url = "http://drivers-api-service")
+import java.util.Collection;
+import java.util.List;
+
+@FeignClient(name = "drivers-api")
 public interface DriversApiClient {
 
     @GetMapping("/api/drivers/{id}")
     Driver getDriver(@PathVariable("id") Long id);
 
+    @GetMapping("/api/drivers")
+    List<Driver> getDrivers(@RequestParam("ids") Collection<Long> ids);
+
+    // The same lookup read from the primary: the cookie is the one drivers-api hands out after a
+    // write, so a read replica that has not replayed the change yet is skipped
+    @GetMapping(value = "/api/drivers", headers = "Cookie=read-primary=1")
+    List<Driver> getDriversFromPrimary(@RequestParam("ids") Collection<Long> ids);
+
     @GetMapping("/api/drivers/{id}/career-stats")
     DriverStats getDriverStats(@PathVariable("id") Long id);
 }
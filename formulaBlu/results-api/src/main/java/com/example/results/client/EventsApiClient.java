@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.List;
 
-@FeignClient(name = "events-api", url = "http://events-api-service")
+@FeignClient(name = "events-api")
 public interface EventsApiClient {
 
     @GetMapping("/api/events/race-weekend/{weekendId}")
@@ -0,0 +1,64 @@
+package com.example.results.client;
+
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Applies ResilientClient to every Feign client. Circuit breakers and bulkheads are configured
+// under resilience4j.* in application.yml, one instance per service name, and publish their
+// state and call counts as resilience4j_* metrics; hedges are counted as feign.client.hedges.
+@Configuration
+public class ResilienceConfiguration implements DisposableBean {
+
+    @Value("${results.hedging.delay:0ms}")
+    private Duration hedgeDelay;
+
+    // Hedged attempts block on I/O, so each gets a virtual thread. Not a bean, see BatchingConfiguration.
+    private final ExecutorService hedgingExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("feign-hedge-", 0).factory());
+
+    @Bean
+    public Capability resilienceCapability(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                                           MeterRegistry meterRegistry) {
+        return new ResilienceCapability(circuitBreakerRegistry, bulkheadRegistry, meterRegistry, hedgeDelay, hedgingExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        hedgingExecutor.shutdown();
+    }
+
+    // Public because Feign finds the enrich methods of a capability by reflection
+    public static class ResilienceCapability implements Capability {
+
+        private final CircuitBreakerRegistry circuitBreakerRegistry;
+        private final BulkheadRegistry bulkheadRegistry;
+        private final MeterRegistry meterRegistry;
+        private final Duration hedgeDelay;
+        private final ExecutorService executor;
+
+        ResilienceCapability(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                             MeterRegistry meterRegistry, Duration hedgeDelay, ExecutorService executor) {
+            this.circuitBreakerRegistry = circuitBreakerRegistry;
+            this.bulkheadRegistry = bulkheadRegistry;
+            this.meterRegistry = meterRegistry;
+            this.hedgeDelay = hedgeDelay;
+            this.executor = executor;
+        }
+
+        @Override
+        public Client enrich(Client client) {
+            return new ResilientClient(client, circuitBreakerRegistry, bulkheadRegistry, meterRegistry, hedgeDelay, executor);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.results.client;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Wraps a Feign client's HTTP calls in the circuit breaker and bulkhead named after the client
+// (drivers-api, teams-api, ...), so a failing or saturated service is cut off instead of tying up
+// the threads that call it. Clients with a contextId of their own, the change feed clients
+// (drivers-api-feed, teams-api-feed), get instances of their own too: their long reads neither
+// take the lookups' bulkhead permits nor count towards their breaker.
+// - The bulkhead caps concurrent calls per service and rejects the excess at once.
+// - The circuit breaker counts exceptions and 5xx responses as failures and, once open, fails
+//   calls without sending them. Bulkhead rejections are not failures of the service: the call was
+//   never sent, so it hands its breaker permission back without being recorded.
+// - Plain GETs still unanswered after the hedge delay get a second attempt. Each attempt goes
+//   through the load balancer, so the hedge normally lands on another replica, and whichever
+//   answers first is used. A hedge needs a free bulkhead permit of its own, so hedging backs off
+//   when the service is busy; a hedge that is not sent is not recorded either.
+// Response bodies are read before the permit is released, except for event and NDJSON streams.
+class ResilientClient implements Client {
+
+    private final Client delegate;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Duration hedgeDelay;
+    private final ExecutorService executor;
+
+    // contextId of each client interface, empty where the service name is all it has
+    private static final ClassValue<String> CONTEXT_IDS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            FeignClient client = type.getAnnotation(FeignClient.class);
+            return client == null ? "" : client.contextId();
+        }
+    };
+
+    ResilientClient(Client delegate, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                    MeterRegistry meterRegistry, Duration hedgeDelay, ExecutorService executor) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+        this.hedgeDelay = hedgeDelay;
+        this.executor = executor;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String name = instanceName(request);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name);
+        Bulkhead bulkhead = bulkheads.bulkhead(name);
+        circuitBreaker.acquirePermission();
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            Response response = hedgeable(request)
+                    ? hedged(name, request, options, bulkhead)
+                    : attempt(request, options, bulkhead);
+            long elapsed = circuitBreaker.getCurrentTimestamp() - start;
+            if (response.status() >= 500) {
+                circuitBreaker.onError(elapsed, circuitBreaker.getTimestampUnit(),
+                        new IOException(name + " returned " + response.status()));
+            } else {
+                circuitBreaker.onSuccess(elapsed, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+        } catch (BulkheadFullException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        }
+    }
+
+    private static String instanceName(Request request) {
+        MethodMetadata metadata = request.requestTemplate().methodMetadata();
+        String contextId = metadata == null || metadata.targetType() == null ? "" : CONTEXT_IDS.get(metadata.targetType());
+        return contextId.isEmpty() ? request.requestTemplate().feignTarget().name() : contextId;
+    }
+
+    private boolean hedgeable(Request request) {
+        return !hedgeDelay.isZero() && request.httpMethod() == Request.HttpMethod.GET && !streaming(request.headers());
+    }
+
+    // Rejected with BulkheadFullException when the service already has its maximum in flight
+    private Response attempt(Request request, Request.Options options, Bulkhead bulkhead) throws IOException {
+        bulkhead.acquirePermission();
+        try {
+            return buffered(delegate.execute(request, options));
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private Response hedged(String name, Request request, Request.Options options, Bulkhead bulkhead) throws IOException {
+        bulkhead.acquirePermission();
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        start(request, options, bulkhead, winner, running, false, name);
+        try {
+            return winner.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (bulkhead.tryAcquirePermission()) {
+                running.incrementAndGet();
+                meterRegistry.counter("feign.client.hedges", "client", name, "result", "sent").increment();
+                start(request, options, bulkhead, winner, running, true, name);
+            }
+            return await(winner);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + name, e);
+        }
+    }
+
+    // The first response wins; responses arriving after it are closed. Fails only when every attempt has.
+    private void start(Request request, Request.Options options, Bulkhead bulkhead, CompletableFuture<Response> winner,
+                       AtomicInteger running, boolean hedge, String name) {
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return buffered(delegate.execute(request, options));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                bulkhead.onComplete();
+            }
+        }, executor).whenComplete((response, failure) -> {
+            if (failure == null) {
+                if (winner.complete(response)) {
+                    if (hedge) {
+                        meterRegistry.counter("feign.client.hedges", "client", name, "result", "won").increment();
+                    }
+                } else {
+                    response.close();
+                }
+            } else if (running.decrementAndGet() == 0) {
+                winner.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private static Response await(CompletableFuture<Response> winner) throws IOException {
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    // IOExceptions are returned for the caller to throw, anything unchecked is thrown as it is
+    private static IOException rethrow(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof UncheckedIOException unchecked) {
+            return unchecked.getCause();
+        }
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new IOException(cause);
+    }
+
+    // Reads the body so the connection goes back to the pool and the call's timing covers the whole response
+    private static Response buffered(Response response) throws IOException {
+        if (response.body() == null || streaming(response.headers())) {
+            return response;
+        }
+        try (response; InputStream body = response.body().asInputStream()) {
+            return response.toBuilder().body(body.readAllBytes()).build();
+        }
+    }
+
+    private static boolean streaming(Map<String, Collection<String>> headers) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(HttpHeaders.ACCEPT) || header.getKey().equalsIgnoreCase(HttpHeaders.CONTENT_TYPE)) {
+                for (String value : header.getValue()) {
+                    if (value.contains(MediaType.TEXT_EVENT_STREAM_VALUE) || value.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
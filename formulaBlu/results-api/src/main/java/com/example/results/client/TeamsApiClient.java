@@ -4,13 +4,22 @@ import com.example.results.dto.Team;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "teams-api", url = "http://teams-api-service")
+import java.util.Collection;
+import java.util.List;
+
+@FeignClient(name = "teams-api")
 public interface TeamsApiClient {
 
     @GetMapping("/api/teams/{id}")
     Team getTeam(@PathVariable("id") Long id);
 
-    @GetMapping("/api/teams/{id}/drivers")
-    java.util.List<Driver> getTeamDrivers(@PathVariable("id") Long id);
+    @GetMapping("/api/teams")
+    List<Team> getTeams(@RequestParam("ids") Collection<Long> ids);
+
+    // The same lookup read from the primary: the cookie is the one teams-api hands out after a
+    // write, so a read replica that has not replayed the change yet is skipped
+    @GetMapping(value = "/api/teams", headers = "Cookie=read-primary=1")
+    List<Team> getTeamsFromPrimary(@RequestParam("ids") Collection<Long> ids);
 }
@@ -0,0 +1,21 @@
+package com.example.results.client;
+
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+// teams-api's long-running reads, a client of their own so they get a long read timeout
+// (spring.cloud.openfeign.client.config.teams-api-feed) while lookups keep a short one
+@FeignClient(name = "teams-api", contextId = "teams-api-feed")
+public interface TeamsFeedClient {
+
+    // Every team as NDJSON, read with ChangeFeedFollower.readAll
+    @GetMapping(value = "/api/teams", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    Response streamTeams();
+
+    // Server-Sent Events from after (exclusive), or from now when after is null
+    @GetMapping(value = "/api/teams/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Response streamChanges(@RequestParam(value = "after", required = false) Long after);
+}
@@ -0,0 +1,157 @@
+package com.example.results.controller;
+
+import com.example.results.dto.FastestLap;
+import com.example.results.dto.LapTime;
+import com.example.results.dto.StintSummary;
+import com.example.results.timing.LapTimeStore;
+import com.example.results.timing.LiveTimingPipeline;
+import com.example.results.timing.LiveTimingSubscribers;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Lap and sector times of a session (the events service's session id), see LapTimeStore
+@RestController
+@RequestMapping("/api/results/sessions/{sessionId}")
+public class LapTimeController {
+
+    private final LapTimeStore lapTimeStore;
+    private final LiveTimingPipeline liveTimingPipeline;
+    private final LiveTimingSubscribers liveTimingSubscribers;
+    private final ObjectMapper objectMapper;
+
+    public LapTimeController(LapTimeStore lapTimeStore, LiveTimingPipeline liveTimingPipeline,
+                             LiveTimingSubscribers liveTimingSubscribers, ObjectMapper objectMapper) {
+        this.lapTimeStore = lapTimeStore;
+        this.liveTimingPipeline = liveTimingPipeline;
+        this.liveTimingSubscribers = liveTimingSubscribers;
+        this.objectMapper = objectMapper;
+    }
+
+    // Append timing rows, one JSON object per line:
+    // {"driverId":1,"lap":12,"sector":0,"stint":2,"millis":81234}
+    // All or nothing: a malformed or invalid line rejects the whole body with 400.
+    @PostMapping(path = "/laps/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Map<String, Integer> importLaps(@PathVariable long sessionId, InputStream body) throws IOException {
+        try (MappingIterator<LapTime> rows = objectMapper.readerFor(LapTime.class).readValues(body)) {
+            return Map.of("imported", lapTimeStore.append(sessionId, rows));
+        }
+    }
+
+    // Live timing: a long-running NDJSON stream of the same rows, taken in as they arrive (see
+    // LiveTimingPipeline). Lines that do not parse as a row and invalid rows are skipped and counted.
+    // Each line is parsed on its own, so a malformed one cannot take the rest of the stream with it.
+    // When the pipeline stays full the stream is answered 503 with the counts so far; resending it
+    // whole is safe, since rows that were already taken are dropped as repeats.
+    @PostMapping(path = "/live", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Long>> ingestLive(@PathVariable long sessionId, InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(LapTime.class);
+        long accepted = 0;
+        long invalid = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                LapTime lap;
+                try {
+                    lap = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    liveTimingPipeline.countInvalid();
+                    invalid++;
+                    continue;
+                }
+                switch (liveTimingPipeline.offer(sessionId, lap)) {
+                    case ACCEPTED -> accepted++;
+                    case INVALID -> invalid++;
+                    case FULL -> {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(Map.of("accepted", accepted, "invalid", invalid));
+                    }
+                }
+            }
+        }
+        return ResponseEntity.ok(Map.of("accepted", accepted, "invalid", invalid));
+    }
+
+    // Rows as they are written, as Server-Sent Events named lap; 503 when max-subscribers are connected
+    @GetMapping(path = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> followLive(@PathVariable long sessionId) {
+        return liveTimingSubscribers.subscribe(sessionId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
+    // One driver's laps and sectors, written straight from the mapped segments without building a list
+    @GetMapping("/laps")
+    public ResponseEntity<StreamingResponseBody> getLaps(@PathVariable long sessionId, @RequestParam int driverId,
+                                                         @RequestParam(defaultValue = "0") int fromLap,
+                                                         @RequestParam(defaultValue = "" + Short.MAX_VALUE) int toLap) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.writeStartArray();
+            lapTimeStore.forEachLap(sessionId, driverId, fromLap, toLap, (driver, lap, sector, stint, millis) -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("lap", lap);
+                    json.writeNumberField("sector", sector);
+                    json.writeNumberField("stint", stint);
+                    json.writeNumberField("millis", millis);
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/fastest-laps")
+    public List<FastestLap> getFastestLaps(@PathVariable long sessionId) {
+        return lapTimeStore.fastestLaps(sessionId);
+    }
+
+    // Every driver's stints, or one driver's with ?driverId=
+    @GetMapping("/stints")
+    public List<StintSummary> getStints(@PathVariable long sessionId, @RequestParam(defaultValue = "0") int driverId) {
+        return lapTimeStore.stints(sessionId, driverId);
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+
+    // A malformed line met while iterating the import
+    @ExceptionHandler(RuntimeJsonMappingException.class)
+    public ResponseEntity<String> handleMalformedRow(RuntimeJsonMappingException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidLap(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
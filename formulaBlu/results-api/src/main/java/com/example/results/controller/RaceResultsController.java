@@ -0,0 +1,31 @@
+package com.example.results.controller;
+
+import com.example.results.dto.RaceResultsView;
+import com.example.results.service.RaceResultsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/results")
+public class RaceResultsController {
+
+    private final RaceResultsService raceResultsService;
+
+    public RaceResultsController(RaceResultsService raceResultsService) {
+        this.raceResultsService = raceResultsService;
+    }
+
+    // Sessions, drivers and teams for one race in a single response, e.g.
+    // /api/results/race/42?driverIds=1,2,3&teamIds=7,8
+    @GetMapping("/race/{raceId}")
+    public RaceResultsView getRaceResults(@PathVariable Long raceId,
+                                          @RequestParam(defaultValue = "") List<Long> driverIds,
+                                          @RequestParam(defaultValue = "") List<Long> teamIds) {
+        return raceResultsService.getRaceResults(raceId, driverIds, teamIds);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.results.controller;
+
+import com.example.results.service.RosterProjection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+// Serves the precomputed roster documents as stored, without touching the drivers or teams services
+@RestController
+@RequestMapping("/api/results/roster")
+public class RosterController {
+
+    private final RosterProjection rosterProjection;
+
+    public RosterController(RosterProjection rosterProjection) {
+        this.rosterProjection = rosterProjection;
+    }
+
+    // Every team with its drivers; 503 until the projection has been loaded
+    @GetMapping
+    public ResponseEntity<byte[]> getGrid(WebRequest request) {
+        Optional<RosterProjection.Document> grid = rosterProjection.grid();
+        if (grid.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return serve(grid.get(), request);
+    }
+
+    @GetMapping("/teams/{id}")
+    public ResponseEntity<byte[]> getTeamRoster(@PathVariable Long id, WebRequest request) {
+        Optional<RosterProjection.Document> team = rosterProjection.team(id);
+        if (team.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(team.get(), request);
+    }
+
+    @GetMapping("/drivers/{id}")
+    public ResponseEntity<byte[]> getDriverRoster(@PathVariable Long id, WebRequest request) {
+        Optional<RosterProjection.Document> driver = rosterProjection.driver(id);
+        if (driver.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(driver.get(), request);
+    }
+
+    // null once a 304 has been written, as in the other services' conditional GETs
+    private static ResponseEntity<byte[]> serve(RosterProjection.Document document, WebRequest request) {
+        if (request.checkNotModified(document.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(document.body());
+    }
+}
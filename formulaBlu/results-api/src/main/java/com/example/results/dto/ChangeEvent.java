@@ -0,0 +1,16 @@
+package com.example.results.dto;
+
+import lombok.Data;
+
+// One entry of a service's /changes feed
+@Data
+public class ChangeEvent {
+    private Long seq;
+    private Long entityId;
+    private Operation operation;
+    private Long version;
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
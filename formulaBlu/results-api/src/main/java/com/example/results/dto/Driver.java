@@ -1,5 +1,6 @@
 package com.example.results.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import java.time.LocalDate;
 
@@ -14,4 +15,8 @@ public class Driver {
     private Long teamId;
     private String bio;
     private String helmetColor;
+
+    // Read from the service to check it is not behind a change event, not written out again
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long version;
 }
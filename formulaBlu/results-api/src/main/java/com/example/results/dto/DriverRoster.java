@@ -0,0 +1,16 @@
+package com.example.results.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A driver with a summary of their team, which is null for drivers without one
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverRoster {
+    @JsonUnwrapped
+    private Driver driver;
+    private TeamSummary team;
+}
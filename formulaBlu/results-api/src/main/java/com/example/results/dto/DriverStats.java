@@ -0,0 +1,15 @@
+package com.example.results.dto;
+
+import lombok.Data;
+
+@Data
+public class DriverStats {
+    private Long driverId;
+    private Integer races;
+    private Integer wins;
+    private Integer podiums;
+    private Integer poles;
+    private Integer fastestLaps;
+    private Double points;
+    private Integer championships;
+}
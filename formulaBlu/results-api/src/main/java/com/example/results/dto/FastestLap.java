@@ -0,0 +1,14 @@
+package com.example.results.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FastestLap {
+    private int driverId;
+    private int lap;
+    private int millis;
+}
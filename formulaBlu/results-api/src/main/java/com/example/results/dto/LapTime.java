@@ -0,0 +1,17 @@
+package com.example.results.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One timing row: a full lap (sector 0) or one of its sectors (1-3)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LapTime {
+    private Integer driverId;
+    private Integer lap;
+    private int sector;
+    private int stint;
+    private Integer millis;
+}
@@ -0,0 +1,23 @@
+package com.example.results.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceResultsView {
+    private Long raceId;
+    private List<Session> sessions;
+    private List<Driver> drivers;
+    private List<Team> teams;
+    // Upstream parts that failed or missed their deadline, empty when the view is complete
+    private List<String> unavailable;
+
+    public boolean isPartial() {
+        return !unavailable.isEmpty();
+    }
+}
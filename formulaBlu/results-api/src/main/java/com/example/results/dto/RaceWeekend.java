@@ -0,0 +1,15 @@
+package com.example.results.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class RaceWeekend {
+    private Long id;
+    private Long raceId;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Session> sessions;
+}
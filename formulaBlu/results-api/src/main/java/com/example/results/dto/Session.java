@@ -0,0 +1,15 @@
+package com.example.results.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class Session {
+    private Long id;
+    private Long raceId;
+    private Long weekendId;
+    private String type;
+    private String name;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
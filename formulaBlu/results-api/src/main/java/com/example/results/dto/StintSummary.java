@@ -0,0 +1,17 @@
+package com.example.results.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Full laps of one driver's stint
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StintSummary {
+    private int driverId;
+    private int stint;
+    private int laps;
+    private int fastestMillis;
+    private long meanMillis;
+}
@@ -0,0 +1,22 @@
+package com.example.results.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+public class Team {
+    private Long id;
+    private String name;
+    private String nationality;
+    private Integer foundedYear;
+    private String teamPrincipal;
+    private String headquarters;
+    private String primaryColor;
+    private String secondaryColor;
+    private String description;
+    private String website;
+
+    // Read from the service to check it is not behind a change event, not written out again
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long version;
+}
@@ -0,0 +1,18 @@
+package com.example.results.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// A team with its current drivers, serialized as the team's own fields plus "drivers"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamRoster {
+    @JsonUnwrapped
+    private Team team;
+    private List<Driver> drivers;
+}
@@ -0,0 +1,18 @@
+package com.example.results.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamSummary {
+    private Long id;
+    private String name;
+    private String primaryColor;
+
+    public static TeamSummary of(Team team) {
+        return new TeamSummary(team.getId(), team.getName(), team.getPrimaryColor());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.results.service;
+
+import com.example.results.client.AggregationExecutor;
+import com.example.results.client.BatchingLoader;
+import com.example.results.client.EventsApiClient;
+import com.example.results.dto.Driver;
+import com.example.results.dto.RaceResultsView;
+import com.example.results.dto.Session;
+import com.example.results.dto.Team;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+public class RaceResultsService {
+
+    private final EventsApiClient eventsApiClient;
+    private final BatchingLoader<Driver> driverLoader;
+    private final BatchingLoader<Team> teamLoader;
+    private final AggregationExecutor executor;
+
+    @Value("${results.aggregation.deadline:500ms}")
+    private Duration deadline;
+
+    public RaceResultsService(EventsApiClient eventsApiClient, BatchingLoader<Driver> driverLoader,
+                              BatchingLoader<Team> teamLoader, AggregationExecutor executor) {
+        this.eventsApiClient = eventsApiClient;
+        this.driverLoader = driverLoader;
+        this.teamLoader = teamLoader;
+        this.executor = executor;
+    }
+
+    // Fires all downstream calls at once. Each has call-timeout from when it starts running, and
+    // the request as a whole has the overall deadline, which also covers time spent queued for a
+    // thread. Whatever has not arrived by then is reported as unavailable instead of failing the
+    // request. A late call is not cancelled: it keeps its pooled connection until it answers or
+    // Feign's read-timeout ends it.
+    public RaceResultsView getRaceResults(Long raceId, List<Long> driverIds, List<Long> teamIds) {
+        CompletableFuture<List<Session>> sessions = withDeadline(
+                executor.supply(() -> eventsApiClient.getRaceSessions(raceId)));
+        List<CompletableFuture<Driver>> drivers = driverIds.stream().map(id -> withDeadline(driverLoader.load(id))).toList();
+        List<CompletableFuture<Team>> teams = teamIds.stream().map(id -> withDeadline(teamLoader.load(id))).toList();
+
+        CompletableFuture<?>[] all = Stream.of(Stream.of(sessions), drivers.stream(), teams.stream())
+                .flatMap(s -> s)
+                .toArray(CompletableFuture[]::new);
+        // Every future ends by the deadline; individual failures are picked up below
+        CompletableFuture.allOf(all).exceptionally(e -> null).join();
+
+        List<String> unavailable = new ArrayList<>();
+        List<Session> sessionList = valueOrNull(sessions);
+        if (sessionList == null) {
+            unavailable.add("sessions");
+        }
+        return new RaceResultsView(raceId, sessionList, collect(drivers, "drivers", unavailable),
+                collect(teams, "teams", unavailable), unavailable);
+    }
+
+    // copy() so the deadline does not leak into a future shared with other callers of the loader
+    private <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future) {
+        return future.copy().orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private <T> List<T> collect(List<CompletableFuture<T>> futures, String part, List<String> unavailable) {
+        List<T> values = new ArrayList<>(futures.size());
+        boolean missing = false;
+        for (CompletableFuture<T> future : futures) {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                values.add(future.join());
+            } else {
+                missing = true;
+            }
+        }
+        if (missing) {
+            unavailable.add(part);
+        }
+        values.removeIf(Objects::isNull);
+        return values;
+    }
+
+    private <T> T valueOrNull(CompletableFuture<T> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+}
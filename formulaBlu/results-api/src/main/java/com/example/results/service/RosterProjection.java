@@ -0,0 +1,265 @@
+package com.example.results.service;
+
+import com.example.results.client.ChangeFeedFollower;
+import com.example.results.client.DriversApiClient;
+import com.example.results.client.DriversFeedClient;
+import com.example.results.client.TeamsApiClient;
+import com.example.results.client.TeamsFeedClient;
+import com.example.results.dto.ChangeEvent;
+import com.example.results.dto.Driver;
+import com.example.results.dto.DriverRoster;
+import com.example.results.dto.Team;
+import com.example.results.dto.TeamRoster;
+import com.example.results.dto.TeamSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Materialized roster read model: every team with its drivers embedded, and every driver with a
+// summary of their team. It is built once from the drivers and teams services and then kept up to
+// date from their change feeds, so a roster read never calls either service. Each change rewrites
+// only the documents it affects; documents are held serialized, so serving one is a byte copy.
+@Component
+public class RosterProjection implements DisposableBean {
+
+    private static final Comparator<Driver> BY_ID = Comparator.comparing(Driver::getId);
+
+    private final DriversApiClient driversApiClient;
+    private final DriversFeedClient driversFeedClient;
+    private final TeamsApiClient teamsApiClient;
+    private final TeamsFeedClient teamsFeedClient;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedFollower driverFeed;
+    private final ChangeFeedFollower teamFeed;
+
+    // Current upstream state, guarded by this
+    private final Map<Long, Driver> drivers = new HashMap<>();
+    private final Map<Long, Team> teams = new HashMap<>();
+    private boolean driversLoaded;
+    private boolean teamsLoaded;
+    private long version;
+
+    // Keeps ETags from one run from matching documents of another
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Serialized documents, replaced whole and read without locking
+    private final Map<Long, Document> teamDocuments = new ConcurrentHashMap<>();
+    private final Map<Long, Document> driverDocuments = new ConcurrentHashMap<>();
+    private volatile Document grid;
+
+    public RosterProjection(DriversApiClient driversApiClient, DriversFeedClient driversFeedClient,
+                            TeamsApiClient teamsApiClient, TeamsFeedClient teamsFeedClient, ObjectMapper objectMapper,
+                            @Value("${results.roster.retry-delay:5s}") Duration retryDelay) {
+        this.driversApiClient = driversApiClient;
+        this.driversFeedClient = driversFeedClient;
+        this.teamsApiClient = teamsApiClient;
+        this.teamsFeedClient = teamsFeedClient;
+        this.objectMapper = objectMapper;
+        this.driverFeed = new ChangeFeedFollower("drivers", driversFeedClient::streamChanges, this::reloadDrivers,
+                this::applyDriverChanges, objectMapper, retryDelay);
+        this.teamFeed = new ChangeFeedFollower("teams", teamsFeedClient::streamChanges, this::reloadTeams,
+                this::applyTeamChanges, objectMapper, retryDelay);
+    }
+
+    public record Document(byte[] body, String etag) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        teamFeed.start();
+        driverFeed.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        driverFeed.stop();
+        teamFeed.stop();
+    }
+
+    // Empty until both services have been loaded once
+    public Optional<Document> grid() {
+        return Optional.ofNullable(grid);
+    }
+
+    public Optional<Document> team(Long id) {
+        return Optional.ofNullable(teamDocuments.get(id));
+    }
+
+    public Optional<Document> driver(Long id) {
+        return Optional.ofNullable(driverDocuments.get(id));
+    }
+
+    private void reloadDrivers() {
+        List<Driver> all = ChangeFeedFollower.readAll(driversFeedClient.streamDrivers(), Driver.class, objectMapper);
+        synchronized (this) {
+            drivers.clear();
+            all.forEach(driver -> drivers.put(driver.getId(), driver));
+            driversLoaded = true;
+            rebuildAll();
+        }
+    }
+
+    private void reloadTeams() {
+        List<Team> all = ChangeFeedFollower.readAll(teamsFeedClient.streamTeams(), Team.class, objectMapper);
+        synchronized (this) {
+            teams.clear();
+            all.forEach(team -> teams.put(team.getId(), team));
+            teamsLoaded = true;
+            rebuildAll();
+        }
+    }
+
+    // A driver change rewrites that driver and the rosters of the team they left and the team they joined
+    private void applyDriverChanges(List<ChangeEvent> events) {
+        Map<Long, Driver> changed = fetch(events, driversApiClient::getDriversFromPrimary, Driver::getId, Driver::getVersion);
+        synchronized (this) {
+            Set<Long> teamIds = new HashSet<>();
+            changed.forEach((id, driver) -> {
+                Driver previous = driver == null ? drivers.remove(id) : drivers.put(id, driver);
+                if (previous != null) {
+                    teamIds.add(previous.getTeamId());
+                }
+                if (driver != null) {
+                    teamIds.add(driver.getTeamId());
+                }
+            });
+            rebuild(teamIds, changed.keySet());
+        }
+    }
+
+    // A team change rewrites its roster and the team summary of each of its drivers
+    private void applyTeamChanges(List<ChangeEvent> events) {
+        Map<Long, Team> changed = fetch(events, teamsApiClient::getTeamsFromPrimary, Team::getId, Team::getVersion);
+        synchronized (this) {
+            changed.forEach((id, team) -> {
+                if (team == null) {
+                    teams.remove(id);
+                } else {
+                    teams.put(id, team);
+                }
+            });
+            rebuild(changed.keySet(), Set.of());
+        }
+    }
+
+    // Current state of every entity the events mention, null for the ones that no longer exist.
+    // One batch lookup whatever the number of events, asked of the primary. Should an answer still
+    // be older than its event, the batch fails and ChangeFeedFollower delivers it again after the
+    // retry delay, rather than the projection going back to a version it has already moved past.
+    private static <T> Map<Long, T> fetch(List<ChangeEvent> events, Function<List<Long>, List<T>> lookup,
+                                          Function<T, Long> idOf, Function<T, Long> versionOf) {
+        Map<Long, T> changed = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (ChangeEvent event : events) {
+            changed.put(event.getEntityId(), null);
+            if (event.getOperation() == ChangeEvent.Operation.DELETE) {
+                deleted.add(event.getEntityId());
+            } else if (event.getVersion() != null) {
+                versions.merge(event.getEntityId(), event.getVersion(), Math::max);
+            }
+        }
+        List<Long> ids = changed.keySet().stream().filter(id -> !deleted.contains(id)).toList();
+        if (!ids.isEmpty()) {
+            for (T value : lookup.apply(ids)) {
+                Long id = idOf.apply(value);
+                Long expected = versions.get(id);
+                Long version = versionOf.apply(value);
+                if (expected != null && version != null && version < expected) {
+                    throw new IllegalStateException("Lookup of " + id + " returned version " + version
+                            + ", behind its change event at " + expected);
+                }
+                changed.put(id, value);
+            }
+        }
+        return changed;
+    }
+
+    private void rebuildAll() {
+        teamDocuments.keySet().retainAll(teams.keySet());
+        driverDocuments.keySet().retainAll(drivers.keySet());
+        rebuild(new HashSet<>(teams.keySet()), new HashSet<>(drivers.keySet()));
+    }
+
+    // Rewrites the given teams, every driver in them and the given drivers, then reassembles the grid
+    private void rebuild(Set<Long> teamIds, Set<Long> driverIds) {
+        if (!driversLoaded || !teamsLoaded) {
+            return;
+        }
+        Map<Long, List<Driver>> rosters = new HashMap<>();
+        for (Driver driver : drivers.values()) {
+            if (driver.getTeamId() != null) {
+                rosters.computeIfAbsent(driver.getTeamId(), teamId -> new ArrayList<>()).add(driver);
+            }
+        }
+        Set<Long> driversToWrite = new HashSet<>(driverIds);
+        for (Long teamId : teamIds) {
+            if (teamId == null) {
+                continue;
+            }
+            Team team = teams.get(teamId);
+            List<Driver> roster = rosters.getOrDefault(teamId, List.of());
+            roster.forEach(driver -> driversToWrite.add(driver.getId()));
+            if (team == null) {
+                teamDocuments.remove(teamId);
+            } else {
+                roster.sort(BY_ID);
+                teamDocuments.put(teamId, document(new TeamRoster(team, roster)));
+            }
+        }
+        for (Long driverId : driversToWrite) {
+            Driver driver = drivers.get(driverId);
+            if (driver == null) {
+                driverDocuments.remove(driverId);
+            } else {
+                Team team = driver.getTeamId() == null ? null : teams.get(driver.getTeamId());
+                driverDocuments.put(driverId, document(new DriverRoster(driver, team == null ? null : TeamSummary.of(team))));
+            }
+        }
+        grid = assembleGrid();
+    }
+
+    // The team documents in id order, joined into one array without serializing anything again
+    private Document assembleGrid() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        teams.keySet().stream().sorted().map(teamDocuments::get).filter(Objects::nonNull).forEach(document -> {
+            if (out.size() > 1) {
+                out.write(',');
+            }
+            out.writeBytes(document.body());
+        });
+        out.write(']');
+        return new Document(out.toByteArray(), etag());
+    }
+
+    private Document document(Object value) {
+        try {
+            return new Document(objectMapper.writeValueAsBytes(value), etag());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String etag() {
+        return "W/\"roster-" + epoch + "-" + ++version + "\"";
+    }
+}
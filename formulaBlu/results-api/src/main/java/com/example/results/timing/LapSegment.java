@@ -0,0 +1,143 @@
+package com.example.results.timing;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One memory-mapped segment file of a session's timing rows, stored by column:
+//
+//   header   magic, format version, capacity, unused (4 ints)
+//   driver   int[capacity]
+//   lap      short[capacity]
+//   sector   byte[capacity]    0 for a full lap, 1-3 for a sector
+//   stint    byte[capacity]
+//   millis   int[capacity]
+//
+// The file is created at full size and only ever appended to. Rows are written column by column
+// and only counted on commit, in size for readers, which never look past it; the count that
+// survives a restart is kept with those of the session's other segments (see LapTimeStore). Rows
+// rolled back are overwritten by the next append. Reads are absolute gets on
+// the mapping, so nothing is copied onto the heap.
+class LapSegment {
+
+    private static final int MAGIC = 0x4C415053;
+    private static final int FORMAT = 2;
+    private static final int HEADER = 16;
+    // driver + lap + sector + stint + millis
+    private static final int ROW_BYTES = 4 + 2 + 1 + 1 + 4;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int lapOffset;
+    private final int sectorOffset;
+    private final int stintOffset;
+    private final int millisOffset;
+
+    // Rows readers may see; written by the session's single writer only
+    private volatile int size;
+
+    // Rows written, counted or not; the writer's own position
+    private int pending;
+
+    private LapSegment(MappedByteBuffer buffer, int capacity, int size) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.lapOffset = HEADER + 4 * capacity;
+        this.sectorOffset = lapOffset + 2 * capacity;
+        this.stintOffset = sectorOffset + capacity;
+        this.millisOffset = stintOffset + capacity;
+        this.size = size;
+        this.pending = size;
+    }
+
+    static LapSegment create(Path file, int capacity) throws IOException {
+        MappedByteBuffer buffer = map(file, HEADER + (long) ROW_BYTES * capacity,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT);
+        buffer.putInt(8, capacity);
+        return new LapSegment(buffer, capacity, 0);
+    }
+
+    // Rows past count were never committed, e.g. because the process died mid-append
+    static LapSegment open(Path file, int count) throws IOException {
+        MappedByteBuffer buffer = map(file, -1, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException(file + " is not a lap segment");
+        }
+        int capacity = buffer.getInt(8);
+        if (buffer.capacity() != HEADER + (long) ROW_BYTES * capacity || count < 0 || count > capacity) {
+            throw new IOException(file + " is damaged");
+        }
+        return new LapSegment(buffer, capacity, count);
+    }
+
+    private static MappedByteBuffer map(Path file, long length, StandardOpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length < 0 ? channel.size() : length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    boolean isFull() {
+        return pending == capacity;
+    }
+
+    void append(int driverId, int lap, int sector, int stint, int millis) {
+        int row = pending;
+        buffer.putInt(HEADER + 4 * row, driverId);
+        buffer.putShort(lapOffset + 2 * row, (short) lap);
+        buffer.put(sectorOffset + row, (byte) sector);
+        buffer.put(stintOffset + row, (byte) stint);
+        buffer.putInt(millisOffset + 4 * row, millis);
+        pending = row + 1;
+    }
+
+    // Counts the rows written since the last commit, for readers
+    void commit() {
+        size = pending;
+    }
+
+    // Forgets the rows written since the last commit
+    void rollback() {
+        pending = size;
+    }
+
+    // Writes the mapping through to the file
+    void force() {
+        buffer.force();
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Rows written, including those not committed yet
+    int written() {
+        return pending;
+    }
+
+    int driverId(int row) {
+        return buffer.getInt(HEADER + 4 * row);
+    }
+
+    int lap(int row) {
+        return buffer.getShort(lapOffset + 2 * row);
+    }
+
+    int sector(int row) {
+        return buffer.get(sectorOffset + row);
+    }
+
+    int stint(int row) {
+        return buffer.get(stintOffset + row);
+    }
+
+    int millis(int row) {
+        return buffer.getInt(millisOffset + 4 * row);
+    }
+}
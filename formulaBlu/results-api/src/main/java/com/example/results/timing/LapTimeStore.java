@@ -0,0 +1,360 @@
+package com.example.results.timing;
+
+import com.example.results.dto.FastestLap;
+import com.example.results.dto.LapTime;
+import com.example.results.dto.StintSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Lap and sector times of every session, one directory per session under results.timing.directory
+// holding append-only LapSegment files of results.timing.segment-rows rows each (00000.seg, ...).
+// A session's segments are mapped the first time it is used and stay mapped. Reads and
+// aggregations run over the mapped columns with primitive loops: no row becomes an object unless
+// it is part of the answer. Appends to a session are serialized and all-or-nothing; readers never
+// wait for them and only see an append's rows once all of them are in. An append commits by
+// replacing the session's commit file, which holds the row count of every segment, in a single
+// rename, so after a crash a session holds all of an append's rows or none of them, however many
+// segments they span.
+@Component
+public class LapTimeStore {
+
+    // Called once per row with the row's columns
+    @FunctionalInterface
+    public interface LapVisitor {
+        void visit(int driverId, int lap, int sector, int stint, int millis);
+    }
+
+    private final Path directory;
+    private final int segmentRows;
+    private final Map<Long, SessionLaps> sessions = new ConcurrentHashMap<>();
+
+    public LapTimeStore(@Value("${results.timing.directory:data/timing}") Path directory,
+                        @Value("${results.timing.segment-rows:8192}") int segmentRows) {
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+    }
+
+    // Appends the rows in order and makes them durable before returning; returns the number appended.
+    // Rows are validated as they are read, so a long import is never held in memory; a bad row, or
+    // one laps fails to read, rolls back the rows before it and fails the call.
+    public int append(long sessionId, Iterator<LapTime> laps) {
+        SessionLaps session = session(sessionId);
+        synchronized (session) {
+            int appended = 0;
+            try {
+                while (laps.hasNext()) {
+                    LapTime lap = laps.next();
+                    validate(lap);
+                    session.append(lap.getDriverId(), lap.getLap(), lap.getSector(), lap.getStint(), lap.getMillis());
+                    appended++;
+                }
+            } catch (RuntimeException e) {
+                session.rollback();
+                throw e;
+            }
+            session.commit();
+            return appended;
+        }
+    }
+
+    // Rows of one driver with fromLap <= lap <= toLap, in the order they were appended
+    public void forEachLap(long sessionId, int driverId, int fromLap, int toLap, LapVisitor visitor) {
+        for (LapSegment segment : segments(sessionId)) {
+            int size = segment.size();
+            for (int row = 0; row < size; row++) {
+                if (segment.driverId(row) == driverId) {
+                    int lap = segment.lap(row);
+                    if (lap >= fromLap && lap <= toLap) {
+                        visitor.visit(driverId, lap, segment.sector(row), segment.stint(row), segment.millis(row));
+                    }
+                }
+            }
+        }
+    }
+
+    // Every row of a session, in the order they were appended
+    public void forEachRow(long sessionId, LapVisitor visitor) {
+        for (LapSegment segment : segments(sessionId)) {
+            int size = segment.size();
+            for (int row = 0; row < size; row++) {
+                visitor.visit(segment.driverId(row), segment.lap(row), segment.sector(row), segment.stint(row), segment.millis(row));
+            }
+        }
+    }
+
+    // Each driver's fastest full lap, quickest first
+    public List<FastestLap> fastestLaps(long sessionId) {
+        Groups best = new Groups();
+        for (LapSegment segment : segments(sessionId)) {
+            int size = segment.size();
+            for (int row = 0; row < size; row++) {
+                if (segment.sector(row) == 0) {
+                    best.add(segment.driverId(row), segment.lap(row), segment.millis(row));
+                }
+            }
+        }
+        List<FastestLap> laps = new ArrayList<>(best.size);
+        for (int i = 0; i < best.size; i++) {
+            laps.add(new FastestLap((int) best.keys[i], best.bestLaps[i], best.bestMillis[i]));
+        }
+        laps.sort(Comparator.comparingInt(FastestLap::getMillis));
+        return laps;
+    }
+
+    // Full laps per driver and stint: how many, the fastest and the mean. driverId 0 means every driver.
+    public List<StintSummary> stints(long sessionId, int driverId) {
+        Groups stints = new Groups();
+        for (LapSegment segment : segments(sessionId)) {
+            int size = segment.size();
+            for (int row = 0; row < size; row++) {
+                if (segment.sector(row) == 0 && (driverId == 0 || segment.driverId(row) == driverId)) {
+                    stints.add((long) segment.driverId(row) << 8 | segment.stint(row), segment.lap(row), segment.millis(row));
+                }
+            }
+        }
+        List<StintSummary> summaries = new ArrayList<>(stints.size);
+        for (int i = 0; i < stints.size; i++) {
+            summaries.add(new StintSummary((int) (stints.keys[i] >> 8), (int) (stints.keys[i] & 0xFF), stints.counts[i],
+                    stints.bestMillis[i], stints.totals[i] / stints.counts[i]));
+        }
+        summaries.sort(Comparator.comparingInt(StintSummary::getDriverId).thenComparingInt(StintSummary::getStint));
+        return summaries;
+    }
+
+    static void validate(LapTime lap) {
+        if (lap.getDriverId() == null || lap.getLap() == null || lap.getMillis() == null) {
+            throw new IllegalArgumentException("driverId, lap and millis are required");
+        }
+        if (lap.getDriverId() <= 0 || lap.getLap() < 0 || lap.getLap() > Short.MAX_VALUE || lap.getMillis() <= 0) {
+            throw new IllegalArgumentException("Invalid lap " + lap);
+        }
+        if (lap.getSector() < 0 || lap.getSector() > 3 || lap.getStint() < 0 || lap.getStint() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid sector or stint " + lap);
+        }
+    }
+
+    // Reads of a session nothing was ever written to are answered without registering it
+    private LapSegment[] segments(long sessionId) {
+        SessionLaps session = sessions.get(sessionId);
+        if (session == null) {
+            if (!Files.isDirectory(directory.resolve(Long.toString(sessionId)))) {
+                return new LapSegment[0];
+            }
+            session = session(sessionId);
+        }
+        return session.segments;
+    }
+
+    private SessionLaps session(long sessionId) {
+        return sessions.computeIfAbsent(sessionId, id -> SessionLaps.open(directory.resolve(Long.toString(id)), segmentRows));
+    }
+
+    // The segments of one session. Segments an append adds are only published, by replacing the
+    // array readers use, when it commits.
+    private static final class SessionLaps {
+
+        // Segment count, then the committed row count of each segment (little-endian ints)
+        private static final String COMMIT_FILE = "committed";
+
+        private final Path directory;
+        private final int segmentRows;
+        private volatile LapSegment[] segments;
+        // The writer's segments: the published ones and those added since the last commit
+        private LapSegment[] writing;
+
+        private SessionLaps(Path directory, int segmentRows, LapSegment[] segments) {
+            this.directory = directory;
+            this.segmentRows = segmentRows;
+            this.segments = segments;
+            this.writing = segments;
+        }
+
+        static SessionLaps open(Path directory, int segmentRows) {
+            try {
+                if (!Files.isDirectory(directory)) {
+                    return new SessionLaps(directory, segmentRows, new LapSegment[0]);
+                }
+                int[] counts = readCommitted(directory);
+                LapSegment[] segments = new LapSegment[counts.length];
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i] = LapSegment.open(directory.resolve(fileName(i)), counts[i]);
+                }
+                // Segments past the committed ones were added by an append that never committed
+                List<Path> files;
+                try (Stream<Path> list = Files.list(directory)) {
+                    files = list.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+                }
+                for (Path file : files) {
+                    if (file.getFileName().toString().compareTo(fileName(segments.length)) >= 0) {
+                        Files.delete(file);
+                    }
+                }
+                return new SessionLaps(directory, segmentRows, segments);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void append(int driverId, int lap, int sector, int stint, int millis) {
+            LapSegment last = writing.length == 0 ? null : writing[writing.length - 1];
+            if (last == null || last.isFull()) {
+                last = addSegment();
+            }
+            last.append(driverId, lap, sector, stint, millis);
+        }
+
+        // The rows are written through before they are counted, so after a crash the commit file
+        // never counts a row that is not on disk
+        void commit() {
+            int first = Math.max(segments.length - 1, 0);
+            for (int i = first; i < writing.length; i++) {
+                writing[i].force();
+            }
+            try {
+                writeCommitted();
+            } catch (IOException e) {
+                rollback();
+                throw new UncheckedIOException(e);
+            }
+            for (int i = first; i < writing.length; i++) {
+                writing[i].commit();
+            }
+            segments = writing;
+            // Until the directory is synced the rename may not survive a crash
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Segments added since the last commit hold nothing counted and are deleted, so the next
+        // one added takes the same file name
+        void rollback() {
+            LapSegment[] published = segments;
+            if (published.length > 0) {
+                published[published.length - 1].rollback();
+            }
+            try {
+                for (int i = published.length; i < writing.length; i++) {
+                    Files.deleteIfExists(directory.resolve(fileName(i)));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                writing = published;
+            }
+        }
+
+        // Written to a temporary file and renamed over the last one
+        private void writeCommitted() throws IOException {
+            ByteBuffer counts = ByteBuffer.allocate(4 * (writing.length + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            counts.putInt(writing.length);
+            for (LapSegment segment : writing) {
+                counts.putInt(segment.written());
+            }
+            counts.flip();
+            Path temporary = directory.resolve(COMMIT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (counts.hasRemaining()) {
+                    channel.write(counts);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(COMMIT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // No commit file: nothing was ever committed
+        private static int[] readCommitted(Path directory) throws IOException {
+            Path file = directory.resolve(COMMIT_FILE);
+            if (!Files.exists(file)) {
+                return new int[0];
+            }
+            ByteBuffer counts = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            if (counts.remaining() < 4 || counts.remaining() != 4 * (counts.getInt(0) + 1)) {
+                throw new IOException(file + " is damaged");
+            }
+            int[] committed = new int[counts.getInt()];
+            for (int i = 0; i < committed.length; i++) {
+                committed[i] = counts.getInt();
+            }
+            return committed;
+        }
+
+        private LapSegment addSegment() {
+            try {
+                Files.createDirectories(directory);
+                LapSegment segment = LapSegment.create(directory.resolve(fileName(writing.length)), segmentRows);
+                LapSegment[] extended = Arrays.copyOf(writing, writing.length + 1);
+                extended[writing.length] = segment;
+                writing = extended;
+                return segment;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String fileName(int index) {
+            return "%05d.seg".formatted(index);
+        }
+    }
+
+    // Per-key lap count, total, and fastest lap with its number, for the few dozen keys of a session
+    private static final class Groups {
+
+        long[] keys = new long[32];
+        int[] counts = new int[32];
+        long[] totals = new long[32];
+        int[] bestMillis = new int[32];
+        int[] bestLaps = new int[32];
+        int size;
+
+        void add(long key, int lap, int millis) {
+            int i = indexOf(key);
+            counts[i]++;
+            totals[i] += millis;
+            if (counts[i] == 1 || millis < bestMillis[i]) {
+                bestMillis[i] = millis;
+                bestLaps[i] = lap;
+            }
+        }
+
+        private int indexOf(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+                bestMillis = Arrays.copyOf(bestMillis, capacity);
+                bestLaps = Arrays.copyOf(bestLaps, capacity);
+            }
+            keys[size] = key;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.results.timing;
+
+import com.example.results.dto.LapTime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Live timing ingestion. Producers hand rows to a bounded queue (an array ring of queue-capacity
+// rows) and one pipeline thread takes them out in stages:
+// 1. Validation runs before a row is queued, so the queue only holds rows that can be written.
+// 2. Ordering: per session and car, a row must come after the last one taken for that car (sectors
+//    1-3 of a lap, then the lap). Repeats and late arrivals are dropped as stale, which makes
+//    resending a whole stream after a failure safe.
+// 3. Durable write: whatever queued while the previous batch was being written, up to max-batch
+//    rows, is appended to the LapTimeStore with one force per session.
+// 4. Fan-out of the written rows to LiveTimingSubscribers.
+// A producer that finds the queue full waits up to offer-timeout, during which its stream is not
+// read, so TCP pushes back on the sender. After that the producer is turned away. A burst therefore
+// costs latency and then rejections, never unbounded memory.
+@Component
+public class LiveTimingPipeline implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTimingPipeline.class);
+
+    // Sessions whose ordering state is kept; others are reloaded from the store when they come back
+    private static final int ORDERED_SESSIONS = 64;
+
+    public enum Admission {
+        ACCEPTED,
+        INVALID,
+        FULL
+    }
+
+    private record Event(long sessionId, LapTime lap, long receivedNanos) {
+    }
+
+    private final LapTimeStore lapTimeStore;
+    private final LiveTimingSubscribers subscribers;
+    private final BlockingQueue<Event> queue;
+    private final int maxBatch;
+    private final Duration offerTimeout;
+
+    private final Counter accepted;
+    private final Counter invalid;
+    private final Counter rejected;
+    private final Counter stale;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer lag;
+    private final DistributionSummary batchSize;
+
+    // Pipeline thread only: order key of the last row taken, by session and car
+    private final Map<Long, Map<Integer, Integer>> lastTaken = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<Integer, Integer>> eldest) {
+            return size() > ORDERED_SESSIONS;
+        }
+    };
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public LiveTimingPipeline(LapTimeStore lapTimeStore, LiveTimingSubscribers subscribers, MeterRegistry meterRegistry,
+                              @Value("${results.live.queue-capacity:65536}") int queueCapacity,
+                              @Value("${results.live.max-batch:4096}") int maxBatch,
+                              @Value("${results.live.offer-timeout:2s}") Duration offerTimeout) {
+        this.lapTimeStore = lapTimeStore;
+        this.subscribers = subscribers;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.offerTimeout = offerTimeout;
+        this.accepted = meterRegistry.counter("live.timing.events", "result", "accepted");
+        this.invalid = meterRegistry.counter("live.timing.events", "result", "invalid");
+        this.rejected = meterRegistry.counter("live.timing.events", "result", "rejected");
+        this.stale = meterRegistry.counter("live.timing.events", "result", "stale");
+        this.written = meterRegistry.counter("live.timing.events", "result", "written");
+        this.failed = meterRegistry.counter("live.timing.events", "result", "failed");
+        this.lag = Timer.builder("live.timing.lag")
+                .description("Time from a row being queued to its batch being written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("live.timing.batch.size").register(meterRegistry);
+        meterRegistry.gauge("live.timing.queue.size", queue, BlockingQueue::size);
+    }
+
+    // Blocks while the queue is full, for up to offer-timeout
+    public Admission offer(long sessionId, LapTime lap) {
+        try {
+            LapTimeStore.validate(lap);
+        } catch (IllegalArgumentException e) {
+            invalid.increment();
+            return Admission.INVALID;
+        }
+        try {
+            if (running && queue.offer(new Event(sessionId, lap, System.nanoTime()), offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                accepted.increment();
+                return Admission.ACCEPTED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return Admission.FULL;
+    }
+
+    // A row that could not even be read, e.g. a malformed line of the live stream
+    public void countInvalid() {
+        invalid.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("live-timing").start(this::run);
+    }
+
+    // Rows already queued are still written
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(offerTimeout.toMillis() + 5000);
+        }
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Event first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                log.error("Dropped a batch of {} live timing rows", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Event> batch) {
+        Map<Long, List<LapTime>> sessions = new LinkedHashMap<>();
+        for (Event event : batch) {
+            if (taken(event)) {
+                sessions.computeIfAbsent(event.sessionId(), id -> new ArrayList<>()).add(event.lap());
+            } else {
+                stale.increment();
+            }
+        }
+        sessions.forEach((sessionId, laps) -> {
+            try {
+                lapTimeStore.append(sessionId, laps.iterator());
+                written.increment(laps.size());
+                subscribers.publish(sessionId, laps);
+            } catch (RuntimeException e) {
+                // None of the batch's rows for the session were kept; start over from what the store holds
+                lastTaken.remove(sessionId);
+                failed.increment(laps.size());
+                log.error("Could not write {} live timing rows of session {}", laps.size(), sessionId, e);
+            }
+        });
+        lag.record(System.nanoTime() - batch.getFirst().receivedNanos(), TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+    }
+
+    private boolean taken(Event event) {
+        Map<Integer, Integer> cars = lastTaken.computeIfAbsent(event.sessionId(), this::lastWritten);
+        int key = orderKey(event.lap().getLap(), event.lap().getSector());
+        Integer last = cars.get(event.lap().getDriverId());
+        if (last != null && key <= last) {
+            return false;
+        }
+        cars.put(event.lap().getDriverId(), key);
+        return true;
+    }
+
+    // Where each car of a session had got to, from the rows already stored
+    private Map<Integer, Integer> lastWritten(long sessionId) {
+        Map<Integer, Integer> cars = new HashMap<>();
+        lapTimeStore.forEachRow(sessionId, (driverId, lap, sector, stint, millis) -> cars.merge(driverId, orderKey(lap, sector), Math::max));
+        return cars;
+    }
+
+    // Sectors 1-3 of a lap, then the lap itself
+    private static int orderKey(int lap, int sector) {
+        return lap * 4 + (sector == 0 ? 3 : sector - 1);
+    }
+}
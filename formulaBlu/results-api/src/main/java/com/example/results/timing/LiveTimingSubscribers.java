@@ -0,0 +1,147 @@
+package com.example.results.timing;
+
+import com.example.results.dto.LapTime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fan-out of written live timing rows to a session's Server-Sent Event subscribers. Each subscriber
+// has its own bounded backlog, drained by its own virtual thread, so a slow client only falls behind
+// itself: when its backlog is full the oldest unsent rows are dropped and counted, and the pipeline
+// never waits for it.
+@Component
+public class LiveTimingSubscribers implements DisposableBean {
+
+    private final int backlog;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Counter dropped;
+
+    private final Map<Long, Set<Subscriber>> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LiveTimingSubscribers(@Value("${results.live.subscriber-backlog:1024}") int backlog,
+                                 @Value("${results.live.max-subscribers:200}") int maxSubscribers,
+                                 @Value("${results.live.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${results.live.subscriber-timeout:30m}") Duration timeout,
+                                 MeterRegistry meterRegistry) {
+        this.backlog = backlog;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.dropped = meterRegistry.counter("live.timing.subscriber.dropped");
+        meterRegistry.gauge("live.timing.subscribers", count);
+        meterRegistry.gauge("live.timing.subscriber.backlog", sessions,
+                s -> s.values().stream().flatMap(Set::stream).mapToInt(subscriber -> subscriber.queue.size()).sum());
+    }
+
+    // Rows written from now on; empty when max-subscribers are already connected
+    public Optional<SseEmitter> subscribe(long sessionId) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(sessionId, emitter);
+        sessions.compute(sessionId, (id, subscribers) -> {
+            Set<Subscriber> joined = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            joined.add(subscriber);
+            return joined;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("live-timing-" + sessionId).start(subscriber);
+        return Optional.of(emitter);
+    }
+
+    // Called by the pipeline thread only
+    void publish(long sessionId, List<LapTime> laps) {
+        Set<Subscriber> subscribers = sessions.get(sessionId);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            for (LapTime lap : laps) {
+                subscriber.offer(lap);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sessions.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final long sessionId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LapTime> queue = new ArrayBlockingQueue<>(backlog);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread thread;
+
+        Subscriber(long sessionId, SseEmitter emitter) {
+            this.sessionId = sessionId;
+            this.emitter = emitter;
+        }
+
+        void offer(LapTime lap) {
+            while (!queue.offer(lap)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // The response is only committed by the first send; don't leave the client waiting a heartbeat
+                emitter.send(SseEmitter.event().comment(""));
+                while (!closed.get()) {
+                    LapTime lap = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    emitter.send(lap == null ? SseEmitter.event().comment("") : SseEmitter.event().name("lap").data(lap));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        // Runs once, from whichever of the emitter callbacks and the sending thread gets here first
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                sessions.computeIfPresent(sessionId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+                count.decrementAndGet();
+                Thread sender = thread;
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }
+    }
+}
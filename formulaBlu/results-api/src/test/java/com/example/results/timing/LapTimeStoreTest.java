@@ -0,0 +1,191 @@
+package com.example.results.timing;
+
+import com.example.results.dto.FastestLap;
+import com.example.results.dto.LapTime;
+import com.example.results.dto.StintSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LapTimeStoreTest {
+
+    private static final long SESSION = 7;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsADriversLapsInAppendOrder() {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        store.append(SESSION, List.of(
+                lap(1, 1, 0, 90_000), lap(2, 1, 0, 91_000), lap(1, 2, 1, 30_000),
+                lap(1, 2, 0, 89_000), lap(1, 3, 0, 88_500), lap(2, 2, 0, 90_500)).iterator());
+
+        List<String> rows = new ArrayList<>();
+        store.forEachLap(SESSION, 1, 2, 3, (driverId, lap, sector, stint, millis) ->
+                rows.add(driverId + "/" + lap + "/" + sector + "/" + millis));
+
+        assertThat(rows).containsExactly("1/2/1/30000", "1/2/0/89000", "1/3/0/88500");
+    }
+
+    @Test
+    void readsEveryRowOfASession() {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        store.append(SESSION, List.of(lap(1, 1, 0, 90_000), lap(2, 1, 0, 91_000)).iterator());
+
+        List<Integer> drivers = new ArrayList<>();
+        store.forEachRow(SESSION, (driverId, lap, sector, stint, millis) -> drivers.add(driverId));
+
+        assertThat(drivers).containsExactly(1, 2);
+    }
+
+    @Test
+    void unknownSessionIsEmpty() {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+
+        assertThat(store.fastestLaps(99)).isEmpty();
+        assertThat(store.stints(99, 0)).isEmpty();
+        assertThat(directory.resolve("99")).doesNotExist();
+    }
+
+    @Test
+    void fastestLapsCountFullLapsOnly() {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        store.append(SESSION, List.of(
+                lap(1, 1, 0, 90_000), lap(1, 2, 1, 25_000), lap(1, 2, 0, 89_000),
+                lap(2, 1, 0, 88_000), lap(2, 2, 0, 92_000)).iterator());
+
+        assertThat(store.fastestLaps(SESSION)).containsExactly(
+                new FastestLap(2, 1, 88_000), new FastestLap(1, 2, 89_000));
+    }
+
+    @Test
+    void summarizesStintsPerDriver() {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        store.append(SESSION, List.of(
+                lap(1, 1, 1, 0, 90_000), lap(1, 2, 1, 0, 92_000), lap(1, 3, 2, 0, 86_000),
+                lap(1, 3, 2, 1, 28_000), lap(2, 1, 1, 0, 91_000)).iterator());
+
+        assertThat(store.stints(SESSION, 0)).containsExactly(
+                new StintSummary(1, 1, 2, 90_000, 91_000),
+                new StintSummary(1, 2, 1, 86_000, 86_000),
+                new StintSummary(2, 1, 1, 91_000, 91_000));
+        assertThat(store.stints(SESSION, 2)).containsExactly(new StintSummary(2, 1, 1, 91_000, 91_000));
+    }
+
+    @Test
+    void rollsOverToNewSegmentsAndReadsThemBack() throws IOException {
+        LapTimeStore store = new LapTimeStore(directory, 4);
+        store.append(SESSION, laps(1, 6));
+        store.append(SESSION, laps(7, 4));
+
+        assertThat(segmentFiles()).containsExactly("00000.seg", "00001.seg", "00002.seg");
+        assertThat(lapsOf(store, 1)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        // A new instance maps the same files
+        assertThat(lapsOf(new LapTimeStore(directory, 4), 1)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    void invalidRowRejectsTheWholeAppend() throws IOException {
+        LapTimeStore store = new LapTimeStore(directory, 4);
+        store.append(SESSION, laps(1, 3));
+
+        List<LapTime> rows = new ArrayList<>();
+        laps(4, 6).forEachRemaining(rows::add);
+        rows.add(lap(1, 10, 0, -1));
+        assertThatThrownBy(() -> store.append(SESSION, rows.iterator())).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(lapsOf(store, 1)).containsExactly(1, 2, 3);
+        assertThat(segmentFiles()).containsExactly("00000.seg");
+        assertThat(lapsOf(new LapTimeStore(directory, 4), 1)).containsExactly(1, 2, 3);
+
+        // The rows rolled back are overwritten and the segment numbering carries on
+        store.append(SESSION, laps(4, 3));
+        assertThat(lapsOf(store, 1)).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(segmentFiles()).containsExactly("00000.seg", "00001.seg");
+    }
+
+    @Test
+    void failingReadRejectsTheWholeAppend() {
+        LapTimeStore store = new LapTimeStore(directory, 4);
+        Iterator<LapTime> good = laps(1, 2);
+        Iterator<LapTime> failing = new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public LapTime next() {
+                if (good.hasNext()) {
+                    return good.next();
+                }
+                throw new IllegalStateException("malformed line");
+            }
+        };
+
+        assertThatThrownBy(() -> store.append(SESSION, failing)).hasMessage("malformed line");
+        assertThat(lapsOf(store, 1)).isEmpty();
+    }
+
+    @Test
+    void appendCutShortAcrossSegmentsIsForgottenOnRestart() throws IOException {
+        LapTimeStore store = new LapTimeStore(directory, 4);
+        store.append(SESSION, laps(1, 3));
+
+        // A second process over the same files plays the writer that dies after filling a segment
+        // and starting the next, with both written through but the append not committed
+        Path sessionDirectory = directory.resolve(Long.toString(SESSION));
+        Path committed = sessionDirectory.resolve("committed");
+        byte[] before = Files.readAllBytes(committed);
+        new LapTimeStore(directory, 4).append(SESSION, laps(4, 3));
+        Files.write(committed, before);
+
+        LapTimeStore restarted = new LapTimeStore(directory, 4);
+        assertThat(lapsOf(restarted, 1)).containsExactly(1, 2, 3);
+        assertThat(segmentFiles()).containsExactly("00000.seg");
+
+        restarted.append(SESSION, laps(4, 3));
+        assertThat(lapsOf(new LapTimeStore(directory, 4), 1)).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+
+    private List<String> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(Long.toString(SESSION)))) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static List<Integer> lapsOf(LapTimeStore store, int driverId) {
+        List<Integer> laps = new ArrayList<>();
+        store.forEachLap(SESSION, driverId, 0, Short.MAX_VALUE, (driver, lap, sector, stint, millis) -> laps.add(lap));
+        return laps;
+    }
+
+    // Full laps of driver 1 numbered from first on
+    private static Iterator<LapTime> laps(int first, int count) {
+        List<LapTime> laps = new ArrayList<>();
+        for (int lap = first; lap < first + count; lap++) {
+            laps.add(lap(1, lap, 0, 90_000 + lap));
+        }
+        return laps.iterator();
+    }
+
+    private static LapTime lap(int driverId, int lap, int sector, int millis) {
+        return lap(driverId, lap, 1, sector, millis);
+    }
+
+    private static LapTime lap(int driverId, int lap, int stint, int sector, int millis) {
+        return new LapTime(driverId, lap, sector, stint, millis);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.results.timing;
+
+import com.example.results.dto.LapTime;
+import com.example.results.timing.LiveTimingPipeline.Admission;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveTimingPipelineTest {
+
+    private static final long SESSION = 7;
+
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<LiveTimingPipeline> pipelines = new ArrayList<>();
+
+    @AfterEach
+    void stopPipelines() throws InterruptedException {
+        for (LiveTimingPipeline pipeline : pipelines) {
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void writesEachCarsRowsInOrderAndDropsStaleOnes() throws InterruptedException {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        LiveTimingPipeline pipeline = start(store, 16, Duration.ofSeconds(1));
+
+        // Sector 1 and 2 of lap 1, a repeat, the lap itself, then sector 3 arriving after the lap
+        offerAll(pipeline, lap(1, 1, 1), lap(1, 1, 2), lap(1, 1, 1), lap(1, 1, 0), lap(1, 1, 3), lap(2, 1, 0));
+        await(() -> count("written") + count("stale") == 6);
+
+        assertThat(rows(store)).containsExactly("1/1/1", "1/1/2", "1/1/0", "2/1/0");
+        assertThat(count("stale")).isEqualTo(2);
+    }
+
+    @Test
+    void picksUpWhereTheStoreLeftOff() throws InterruptedException {
+        LapTimeStore store = new LapTimeStore(directory, 8);
+        store.append(SESSION, List.of(lap(1, 1, 0), lap(1, 2, 1)).iterator());
+        LiveTimingPipeline pipeline = start(store, 16, Duration.ofSeconds(1));
+
+        // A resent stream: only the rows past what was stored are written
+        offerAll(pipeline, lap(1, 1, 0), lap(1, 2, 1), lap(1, 2, 2));
+        await(() -> count("written") + count("stale") == 3);
+
+        assertThat(rows(store)).containsExactly("1/1/0", "1/2/1", "1/2/2");
+    }
+
+    @Test
+    void invalidRowsAreNotQueued() {
+        LiveTimingPipeline pipeline = start(new LapTimeStore(directory, 8), 16, Duration.ofSeconds(1));
+
+        assertThat(pipeline.offer(SESSION, new LapTime(1, 1, 5, 1, 30_000))).isEqualTo(Admission.INVALID);
+        assertThat(count("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueTurnsProducersAwayAfterOfferTimeout() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        LapTimeStore store = new LapTimeStore(directory, 8) {
+            @Override
+            public int append(long sessionId, Iterator<LapTime> laps) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.append(sessionId, laps);
+            }
+        };
+        LiveTimingPipeline pipeline = start(store, 2, Duration.ofMillis(50));
+
+        // The first row is taken and its write held; two more fill the queue
+        assertThat(pipeline.offer(SESSION, lap(1, 1, 0))).isEqualTo(Admission.ACCEPTED);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pipeline.offer(SESSION, lap(1, 2, 0))).isEqualTo(Admission.ACCEPTED);
+        assertThat(pipeline.offer(SESSION, lap(1, 3, 0))).isEqualTo(Admission.ACCEPTED);
+
+        long started = System.nanoTime();
+        assertThat(pipeline.offer(SESSION, lap(1, 4, 0))).isEqualTo(Admission.FULL);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(count("rejected")).isEqualTo(1);
+
+        release.countDown();
+        await(() -> count("written") == 3);
+        assertThat(pipeline.offer(SESSION, lap(1, 4, 0))).isEqualTo(Admission.ACCEPTED);
+    }
+
+    @Test
+    void slowSubscriberLosesItsOldestRowsWithoutHoldingUpThePipeline() throws InterruptedException {
+        LiveTimingSubscribers subscribers = new LiveTimingSubscribers(2, 10, Duration.ofSeconds(15), Duration.ofMinutes(30),
+                meterRegistry);
+        SseEmitter emitter = subscribers.subscribe(SESSION).orElseThrow();
+
+        // Sends synchronize on the emitter, so holding it stalls the subscriber's sending thread
+        synchronized (emitter) {
+            subscribers.publish(SESSION, List.of(lap(1, 1, 0), lap(1, 2, 0), lap(1, 3, 0), lap(1, 4, 0), lap(1, 5, 0)));
+
+            // At most one row was taken before the sender stalled; the backlog keeps the newest two
+            assertThat(meterRegistry.get("live.timing.subscriber.backlog").gauge().value()).isEqualTo(2);
+            assertThat(meterRegistry.get("live.timing.subscriber.dropped").counter().count()).isBetween(2.0, 3.0);
+        }
+        subscribers.destroy();
+    }
+
+    @Test
+    void subscribersAreCapped() {
+        LiveTimingSubscribers subscribers = new LiveTimingSubscribers(2, 1, Duration.ofSeconds(15), Duration.ofMinutes(30),
+                meterRegistry);
+
+        assertThat(subscribers.subscribe(SESSION)).isPresent();
+        assertThat(subscribers.subscribe(SESSION)).isEmpty();
+        subscribers.destroy();
+    }
+
+    private LiveTimingPipeline start(LapTimeStore store, int queueCapacity, Duration offerTimeout) {
+        LiveTimingSubscribers subscribers = new LiveTimingSubscribers(16, 10, Duration.ofSeconds(15), Duration.ofMinutes(30),
+                meterRegistry);
+        LiveTimingPipeline pipeline = new LiveTimingPipeline(store, subscribers, meterRegistry, queueCapacity, 4096, offerTimeout);
+        pipeline.start();
+        pipelines.add(pipeline);
+        return pipeline;
+    }
+
+    private static void offerAll(LiveTimingPipeline pipeline, LapTime... laps) {
+        for (LapTime lap : laps) {
+            assertThat(pipeline.offer(SESSION, lap)).isEqualTo(Admission.ACCEPTED);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("live.timing.events").tag("result", result).counter().count();
+    }
+
+    private static List<String> rows(LapTimeStore store) {
+        List<String> rows = new ArrayList<>();
+        store.forEachRow(SESSION, (driverId, lap, sector, stint, millis) -> rows.add(driverId + "/" + lap + "/" + sector));
+        return rows;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static LapTime lap(int driverId, int lap, int sector) {
+        return new LapTime(driverId, lap, sector, 1, sector == 0 ? 90_000 + lap : 30_000);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One entry of the team change log: which team was written, how, and its version afterwards.
+// Entries are only ever inserted, through ChangeEventRepository.
+@Entity
+@Table(name = "change_log")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    
+    @Id
+    private Long seq;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+    
+    // Null for deletes
+    private Long version;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+    
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
@@ -0,0 +1,66 @@
+package com.example;
+
+import com.example.querycount.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Counts the statements each request runs. The count is recorded as http.server.requests.queries,
+// tagged like http.server.requests, and the request is logged when it runs more than
+// query-count.warn-threshold statements or takes longer than query-count.slow-request.
+// Streamed bodies are written on another thread after this filter returns and are not counted.
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query-count.warn-threshold}")
+    private int warnThreshold;
+
+    @Value("${query-count.slow-request}")
+    private Duration slowRequest;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        QueryCounter.Scope scope = QueryCounter.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, response, scope.count(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, int queries, Duration elapsed) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(meterRegistry)
+                .record(queries);
+        if (queries > warnThreshold || elapsed.compareTo(slowRequest) > 0) {
+            log.warn("{} {} ran {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(), queries, elapsed.toMillis());
+        }
+    }
+}
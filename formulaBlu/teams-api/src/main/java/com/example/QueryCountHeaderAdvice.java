@@ -0,0 +1,33 @@
+package com.example;
+
+import com.example.querycount.QueryCounter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Outside the prod profile every response body carries X-Query-Count: the SQL statements
+// the request has run by the time the body is written, which is all of them.
+@ControllerAdvice
+@Profile("!prod")
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(QueryCounter.current()));
+        return body;
+    }
+}
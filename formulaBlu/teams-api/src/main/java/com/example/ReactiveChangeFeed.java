@@ -0,0 +1,167 @@
+package com.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The team change log for the reactive profile, served without a thread or a queue per subscriber.
+// One poller reads the log through R2DBC, every poll-interval and at once after a local commit,
+// and publishes each page it reads as a Batch covering (from, to]. Every subscriber keeps its own
+// position. A batch starting past that position means the subscriber missed events: it joined
+// between polls, or was too slow and had batches dropped. It then reads the gap from the log
+// before going on. Sequence numbers follow commit order (see ChangeFeed), so nothing is skipped,
+// and a slow client costs a catch-up query rather than memory.
+@Component
+@Profile("reactive")
+public class ReactiveChangeFeed implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveChangeFeed.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // Once an event arrives, how long a long poll waits for more to answer with
+    private static final Duration LINGER = Duration.ofMillis(10);
+
+    @Autowired
+    private ReactiveChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Value("${change-feed.poll-interval}")
+    private Duration pollInterval;
+
+    @Value("${change-feed.heartbeat}")
+    private Duration heartbeat;
+
+    @Value("${change-feed.timeout}")
+    private Duration timeout;
+
+    private final Sinks.Many<Batch> batches = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Many<Boolean> wakeUps = Sinks.many().multicast().directBestEffort();
+
+    // Last sequence number published, -1 until the log has been read once
+    private volatile long head = -1;
+
+    private Disposable poller;
+
+    // Server-Sent Events as ChangeFeed sends them, after the given sequence number or from now on.
+    // The stream opens with a comment so the response is committed at once, and ends after timeout.
+    public Flux<ServerSentEvent<ChangeEvent>> stream(Long after) {
+        Flux<ServerSentEvent<ChangeEvent>> events = events(after).map(event -> ServerSentEvent.builder(event)
+                .id(String.valueOf(event.getSeq()))
+                .event(event.getOperation().name().toLowerCase(Locale.ROOT))
+                .build());
+        Flux<ServerSentEvent<ChangeEvent>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<ChangeEvent>builder().comment("").build());
+        return Flux.merge(events, heartbeats)
+                .startWith(ServerSentEvent.<ChangeEvent>builder().comment("").build())
+                .take(timeout);
+    }
+
+    // Long poll: the events after the given sequence number, up to a page of them, waiting up to
+    // wait (at most timeout) for the first one. Empty when nothing was written in that time.
+    public Mono<List<ChangeEvent>> poll(Long after, Duration wait) {
+        return events(after)
+                .take(wait.compareTo(timeout) < 0 ? wait : timeout)
+                .bufferTimeout(BATCH_SIZE, LINGER)
+                .next()
+                .defaultIfEmpty(List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        changeFeed.onCommit(() -> wakeUps.tryEmitNext(Boolean.TRUE));
+        poller = Flux.merge(Flux.interval(Duration.ZERO, pollInterval), wakeUps.asFlux())
+                .onBackpressureLatest()
+                .concatMap(tick -> poll().onErrorResume(e -> {
+                    log.warn("Change feed poll failed, retrying", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (poller != null) {
+            poller.dispose();
+        }
+        batches.tryEmitComplete();
+    }
+
+    private Flux<ChangeEvent> events(Long after) {
+        Mono<Long> start = after != null ? Mono.just(after) : changeEventRepository.findLatestSeq();
+        return start.flatMapMany(from -> {
+            AtomicLong position = new AtomicLong(from);
+            long published = head;
+            return batches.asFlux()
+                    .startWith(new Batch(published, published, List.of()))
+                    .concatMap(batch -> deliver(position, batch));
+        });
+    }
+
+    private Flux<ChangeEvent> deliver(AtomicLong position, Batch batch) {
+        Flux<ChangeEvent> missed = position.get() < batch.from() ? read(position.get(), batch.from()) : Flux.empty();
+        return Flux.concat(missed, Flux.fromIterable(batch.events()))
+                .filter(event -> event.getSeq() > position.get())
+                .doOnNext(event -> position.set(event.getSeq()));
+    }
+
+    // Events in (after, to], a page at a time
+    private Flux<ChangeEvent> read(long after, long to) {
+        return page(after, to)
+                .expand(events -> events.size() == BATCH_SIZE ? page(events.getLast().getSeq(), to) : Mono.empty())
+                .flatMapIterable(events -> events);
+    }
+
+    private Mono<List<ChangeEvent>> page(long after, long to) {
+        return changeEventRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(after, to, Limit.of(BATCH_SIZE)).collectList();
+    }
+
+    // With nobody listening only the head is kept current, so a bulk import is not read for nobody
+    private Mono<Void> poll() {
+        if (head < 0 || batches.currentSubscriberCount() == 0) {
+            return changeEventRepository.findLatestSeq()
+                    .doOnNext(seq -> publish(new Batch(seq, seq, List.of())))
+                    .then();
+        }
+        return readNext().expand(full -> full ? readNext() : Mono.empty()).then();
+    }
+
+    // Publishes the next page after head, also when it is empty; returns whether it was full
+    private Mono<Boolean> readNext() {
+        long from = head;
+        return changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(from, Limit.of(BATCH_SIZE))
+                .collectList()
+                .map(events -> {
+                    publish(new Batch(from, events.isEmpty() ? from : events.getLast().getSeq(), events));
+                    return events.size() == BATCH_SIZE;
+                });
+    }
+
+    private void publish(Batch batch) {
+        head = batch.to();
+        batches.tryEmitNext(batch);
+    }
+
+    private record Batch(long from, long to, List<ChangeEvent> events) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// TeamRepository's reads over R2DBC, for the reactive profile. Writes stay with the JPA repository.
+// R2DBC does not take JPA's @Id for the identifier, so lookups by id are derived queries as well.
+@Repository
+public interface ReactiveTeamRepository extends R2dbcRepository<Team, Long> {
+    Mono<Team> findOneById(Long id);
+    Flux<Team> findByIdIn(Collection<Long> ids);
+    Flux<Team> findByNationality(String nationality);
+    Flux<Team> findByFoundedYear(Integer foundedYear);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query("""
+            select * from teams t
+            where lower(t.name) like :pattern
+               or :term <% lower(t.name)
+            order by word_similarity(:term, lower(t.name)) desc, t.id
+            limit :limit
+            """)
+    Flux<Team> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query("""
+            select * from teams t
+            where lower(t.name) like :prefix
+            order by t.name, t.id
+            limit :limit
+            """)
+    Flux<Team> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of teams after the given id
+    Flux<Team> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // The whole table in id order, rows decoded as the subscriber asks for them
+    Flux<Team> findAllByOrderByIdAsc();
+}
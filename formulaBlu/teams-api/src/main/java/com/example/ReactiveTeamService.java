@@ -0,0 +1,96 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// TeamService for the reactive profile. Reads are R2DBC queries that hold no thread while the
+// database works. Writes call TeamService itself on the jdbc scheduler, so they keep its single
+// transactional path: change log, collection version and cache eviction.
+@Service
+@Profile("reactive")
+public class ReactiveTeamService {
+
+    @Autowired
+    private ReactiveTeamRepository teamRepository;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private Scheduler jdbcScheduler;
+
+    public Flux<Team> getAllTeams(Long after, int limit) {
+        return teamRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    public Flux<Team> streamAllTeams() {
+        return teamRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Team> getTeamsByIds(Collection<Long> ids) {
+        return teamRepository.findByIdIn(ids);
+    }
+
+    public Mono<Team> getTeamById(Long id) {
+        return teamRepository.findOneById(id);
+    }
+
+    public Flux<Team> getTeamsByNationality(String nationality) {
+        return teamRepository.findByNationality(nationality);
+    }
+
+    public Flux<Team> searchTeamsByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return Flux.empty();
+        }
+        if (term.length() < 3) {
+            return teamRepository.searchByNamePrefix(TeamService.escapeLike(term) + "%", limit);
+        }
+        return teamRepository.searchByName(term, "%" + TeamService.escapeLike(term) + "%", limit);
+    }
+
+    public Flux<Team> getTeamsByFoundedYear(Integer foundedYear) {
+        return teamRepository.findByFoundedYear(foundedYear);
+    }
+
+    public Mono<Team> saveTeam(Team team) {
+        return blocking(() -> teamService.saveTeam(team));
+    }
+
+    public Mono<Team> updateTeam(Long id, Team team) {
+        return blocking(() -> teamService.updateTeam(id, team)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Team> patchTeam(Long id, Team values, Set<String> fields) {
+        return blocking(() -> teamService.patchTeam(id, values, fields)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Boolean> deleteTeam(Long id) {
+        return blocking(() -> teamService.deleteTeam(id));
+    }
+
+    // Runs on the jdbc scheduler, the rows are read from the request body as the import goes
+    public Mono<Integer> importTeams(Callable<MappingIterator<Team>> rows) {
+        return blocking(() -> {
+            try (MappingIterator<Team> iterator = rows.call()) {
+                return teamService.importTeams(iterator);
+            }
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "teams")
@@ -13,7 +14,8 @@ import lombok.NoArgsConstructor;
 public class Team {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teams_seq")
+    @SequenceGenerator(name = "teams_seq", sequenceName = "teams_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -41,4 +43,9 @@ public class Team {
     
     @Column(name = "website")
     private String website;
+    
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
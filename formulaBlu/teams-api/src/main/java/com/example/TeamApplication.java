@@ -2,11 +2,23 @@ package com.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 
 @SpringBootApplication
+@EnableCaching
+// The entities are JPA's, so JPA would also claim the R2DBC repositories of the reactive profile
+@EnableJpaRepositories(excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
 public class TeamApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(TeamApplication.class, args);
+        SpringApplication application = new SpringApplication(TeamApplication.class);
+        // Records startup steps for StartupReport and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(StartupReport.BUFFER_CAPACITY));
+        application.run(args);
     }
 }
\ No newline at end of file
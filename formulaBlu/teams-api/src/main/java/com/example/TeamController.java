@@ -1,47 +1,170 @@
 package com.example;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/teams")
 @CrossOrigin(origins = "*")
 public class TeamController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    static final String TEXT_CSV_VALUE = "text/csv";
+    
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
+    // CSV import rows: the header line names the columns, empty cells become null
+    static final ObjectReader CSV_READER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build()
+            .readerFor(Team.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    
     @Autowired
     private TeamService teamService;
     
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+    
+    // Served from the encoded bytes until the next write, see SerializedResponseCache
     @GetMapping
-    public List<Team> getAllTeams() {
-        return teamService.getAllTeams();
+    public ResponseEntity<byte[]> getAllTeams(@RequestParam(defaultValue = "0") Long after,
+                                              @RequestParam(defaultValue = "" + TeamService.DEFAULT_PAGE_SIZE) int limit,
+                                              WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        int pageSize = Math.clamp(limit, 1, TeamService.MAX_PAGE_SIZE);
+        SerializedResponseCache.Body body = serializedResponseCache.get("all:" + after + ":" + pageSize,
+                () -> teamService.getAllTeams(after, pageSize),
+                teams -> nextCursor(teams, pageSize));
+        return serializedResponseCache.respond(body, request, HttpHeaders.ACCEPT);
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTeams(WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> teamService.streamAllTeams(team -> {
+            try {
+                writer.writeValue(out, team);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+    
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Team>> getTeamsByIds(@RequestParam List<Long> ids, WebRequest request) {
+        if (ids.size() > TeamService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(teamService.getTeamsByIds(ids));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
+    public ResponseEntity<Team> getTeamById(@PathVariable Long id, WebRequest request) {
         Optional<Team> team = teamService.getTeamById(id);
+        if (team.isPresent() && request.checkNotModified("W/\"" + team.get().getVersion() + "\"")) {
+            return null;
+        }
         return team.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/nationality/{nationality}")
-    public List<Team> getTeamsByNationality(@PathVariable String nationality) {
+    public List<Team> getTeamsByNationality(@PathVariable String nationality, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return teamService.getTeamsByNationality(nationality);
     }
     
     @GetMapping("/search")
-    public List<Team> searchTeamsByName(@RequestParam String name) {
-        return teamService.searchTeamsByName(name);
+    public List<Team> searchTeamsByName(@RequestParam String name,
+                                        @RequestParam(defaultValue = "" + TeamService.DEFAULT_SEARCH_LIMIT) int limit,
+                                        WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return teamService.searchTeamsByName(name, Math.clamp(limit, 1, TeamService.MAX_SEARCH_LIMIT));
     }
     
     @GetMapping("/founded/{year}")
-    public List<Team> getTeamsByFoundedYear(@PathVariable Integer year) {
+    public List<Team> getTeamsByFoundedYear(@PathVariable Integer year, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return teamService.getTeamsByFoundedYear(year);
     }
     
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long after,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+    }
+    
     @PostMapping
     public Team createTeam(@RequestBody Team team) {
         return teamService.saveTeam(team);
@@ -49,19 +172,67 @@ public class TeamController {
     
     @PutMapping("/{id}")
     public ResponseEntity<Team> updateTeam(@PathVariable Long id, @RequestBody Team team) {
-        if (teamService.getTeamById(id).isPresent()) {
-            team.setId(id);
-            return ResponseEntity.ok(teamService.saveTeam(team));
-        }
-        return ResponseEntity.notFound().build();
+        return teamService.updateTeam(id, team)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // JSON merge patch: only the fields present in the body are written, null clears a field.
+    // Send the current version along to have the patch rejected if someone else got there first.
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Team> patchTeam(@PathVariable Long id, @RequestBody ObjectNode patch) throws JsonProcessingException {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        return teamService.patchTeam(id, objectMapper.treeToValue(patch, Team.class), fields)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTeam(@PathVariable Long id) {
-        if (teamService.getTeamById(id).isPresent()) {
-            teamService.deleteTeam(id);
+        if (teamService.deleteTeam(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
+    
+    // Bulk import, one team per line
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Map<String, Integer> importTeamsNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Team> rows = objectMapper.readerFor(Team.class).readValues(body)) {
+            return Map.of("imported", teamService.importTeams(rows));
+        }
+    }
+    
+    // Bulk import from CSV with a header row, e.g. name,nationality,foundedYear,...
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public Map<String, Integer> importTeamsCsv(InputStream body) throws IOException {
+        try (MappingIterator<Team> rows = CSV_READER.readValues(body)) {
+            return Map.of("imported", teamService.importTeams(rows));
+        }
+    }
+    
+    private static HttpHeaders nextCursor(List<Team> teams, int pageSize) {
+        HttpHeaders headers = new HttpHeaders();
+        if (teams.size() == pageSize) {
+            headers.set(NEXT_CURSOR_HEADER, String.valueOf(teams.getLast().getId()));
+        }
+        return headers;
+    }
+    
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+    
+    // e.g. a patch that clears a required field
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<Void> handleConstraintViolation() {
+        return ResponseEntity.badRequest().build();
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleStaleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
@@ -1,13 +1,50 @@
 package com.example;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByNationality(String nationality);
-    List<Team> findByNameContainingIgnoreCase(String name);
     List<Team> findByFoundedYear(Integer foundedYear);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query(value = """
+            select * from teams t
+            where lower(t.name) like :pattern
+               or :term <% lower(t.name)
+            order by word_similarity(:term, lower(t.name)) desc, t.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Team> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query(value = """
+            select * from teams t
+            where lower(t.name) like :prefix
+            order by t.name, t.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Team> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of teams after the given id
+    List<Team> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor-backed stream over the whole table, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Team> streamAllByOrderByIdAsc();
+    // Single-statement delete, returns the number of rows removed
+    @Modifying
+    @Query("delete from Team d where d.id = :id")
+    int removeById(@Param("id") Long id);
 }
@@ -1,42 +1,235 @@
 package com.example;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class TeamService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    
+    // Columns a PUT or PATCH writes, keyed by the JSON field that carries the new value
+    private static final List<Column> COLUMNS = List.of(
+            new Column("name", "name", Team::getName),
+            new Column("nationality", "nationality", Team::getNationality),
+            new Column("foundedYear", "founded_year", Team::getFoundedYear),
+            new Column("teamPrincipal", "team_principal", Team::getTeamPrincipal),
+            new Column("headquarters", "headquarters", Team::getHeadquarters),
+            new Column("primaryColor", "primary_color", Team::getPrimaryColor),
+            new Column("secondaryColor", "secondary_color", Team::getSecondaryColor),
+            new Column("description", "description", Team::getDescription),
+            new Column("website", "website", Team::getWebsite));
+    
     @Autowired
     private TeamRepository teamRepository;
     
-    public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+    
+    @Transactional(readOnly = true)
+    public List<Team> getAllTeams(Long after, int limit) {
+        return teamRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+    
+    // Hands every team to the consumer one at a time and detaches it again,
+    // so the persistence context never holds more than a single row
+    @Transactional(readOnly = true)
+    public void streamAllTeams(Consumer<Team> consumer) {
+        try (Stream<Team> teams = teamRepository.streamAllByOrderByIdAsc()) {
+            teams.forEach(team -> {
+                consumer.accept(team);
+                entityManager.detach(team);
+            });
+        }
     }
     
+    @Transactional(readOnly = true)
+    public List<Team> getTeamsByIds(Collection<Long> ids) {
+        return teamRepository.findAllById(ids);
+    }
+    
+    @Cacheable("teams")
+    @Transactional(readOnly = true)
     public Optional<Team> getTeamById(Long id) {
         return teamRepository.findById(id);
     }
     
+    @Cacheable("teamsByNationality")
+    @Transactional(readOnly = true)
     public List<Team> getTeamsByNationality(String nationality) {
         return teamRepository.findByNationality(nationality);
     }
     
-    public List<Team> searchTeamsByName(String name) {
-        return teamRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(readOnly = true)
+    public List<Team> searchTeamsByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        if (term.length() < 3) {
+            return teamRepository.searchByNamePrefix(escapeLike(term) + "%", limit);
+        }
+        return teamRepository.searchByName(term, "%" + escapeLike(term) + "%", limit);
     }
     
+    @Cacheable("teamsByFoundedYear")
+    @Transactional(readOnly = true)
     public List<Team> getTeamsByFoundedYear(Integer foundedYear) {
         return teamRepository.findByFoundedYear(foundedYear);
     }
     
+    // The previous values of an updated team are unknown here, so the derived lists are cleared wholesale
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "teams", key = "#result.id"),
+            @CacheEvict(cacheNames = {"teamsByNationality", "teamsByFoundedYear"}, allEntries = true)
+    })
+    @Transactional
     public Team saveTeam(Team team) {
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        changeFeed.append(ChangeEvent.Operation.UPSERT, saved.getId(), saved.getVersion());
+        collectionVersion.bump();
+        return saved;
+    }
+    
+    // Replaces every column, empty if there is no such team
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "teams", key = "#id"),
+            @CacheEvict(cacheNames = {"teamsByNationality", "teamsByFoundedYear"}, allEntries = true)
+    })
+    public Optional<Team> updateTeam(Long id, Team team) {
+        return update(id, team, COLUMNS);
+    }
+    
+    // Writes only the named fields, taking their values from the given team
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "teams", key = "#id"),
+            @CacheEvict(cacheNames = {"teamsByNationality", "teamsByFoundedYear"}, allEntries = true)
+    })
+    public Optional<Team> patchTeam(Long id, Team values, Set<String> fields) {
+        return update(id, values, COLUMNS.stream().filter(column -> fields.contains(column.field())).toList());
+    }
+    
+    // Returns false if there was no such team
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "teams", key = "#id"),
+            @CacheEvict(cacheNames = {"teamsByNationality", "teamsByFoundedYear"}, allEntries = true)
+    })
+    public boolean deleteTeam(Long id) {
+        if (teamRepository.removeById(id) == 0) {
+            return false;
+        }
+        changeFeed.append(ChangeEvent.Operation.DELETE, id, null);
+        collectionVersion.bump();
+        return true;
+    }
+    
+    // One statement instead of read-then-merge: writes the columns and bumps the version if the row
+    // exists and, when the caller sent a version, still has it. The new row comes back via RETURNING.
+    // Only a failed versioned write pays for a second query, to tell a stale version from a missing row.
+    @SuppressWarnings("unchecked")
+    private Optional<Team> update(Long id, Team values, List<Column> columns) {
+        StringBuilder sql = new StringBuilder("update teams set ");
+        columns.forEach(column -> sql.append(column.name()).append(" = :").append(column.field()).append(", "));
+        sql.append("version = version + 1 where id = :id");
+        if (values.getVersion() != null) {
+            sql.append(" and version = :version");
+        }
+        Query query = entityManager.createNativeQuery(sql.append(" returning *").toString(), Team.class)
+                .setParameter("id", id);
+        columns.forEach(column -> query.setParameter(column.field(), column.value().apply(values)));
+        if (values.getVersion() != null) {
+            query.setParameter("version", values.getVersion());
+        }
+        Optional<Team> updated = ((List<Team>) query.getResultList()).stream().findFirst();
+        if (updated.isEmpty() && values.getVersion() != null && teamRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Team " + id + " is no longer at version " + values.getVersion());
+        }
+        updated.ifPresent(team -> {
+            changeFeed.append(ChangeEvent.Operation.UPSERT, team.getId(), team.getVersion());
+            collectionVersion.bump();
+        });
+        return updated;
+    }
+    
+    // Bulk insert. Ids come from the pooled sequence, so Hibernate sends each flush as one
+    // JDBC batch; clearing after every batch keeps memory flat however long the stream is.
+    // All rows go in one transaction: a malformed row rolls the whole import back.
+    @Transactional(rollbackFor = IOException.class)
+    @CacheEvict(cacheNames = {"teams", "teamsByNationality", "teamsByFoundedYear"}, allEntries = true)
+    public int importTeams(MappingIterator<Team> rows) throws IOException {
+        int imported = 0;
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (rows.hasNextValue()) {
+            Team team = rows.nextValue();
+            team.setId(null);
+            team.setVersion(null);
+            entityManager.persist(team);
+            batch.add(team.getId());
+            if (++imported % batchSize == 0) {
+                flushImportBatch(batch);
+            }
+        }
+        flushImportBatch(batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                collectionVersion.bump();
+            }
+        });
+        return imported;
+    }
+    
+    // Sends the batch's inserts, logs them with one statement and detaches them
+    private void flushImportBatch(List<Long> ids) {
+        entityManager.flush();
+        changeFeed.appendUpserts(ids);
+        entityManager.clear();
+        ids.clear();
+    }
+    
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
-    public void deleteTeam(Long id) {
-        teamRepository.deleteById(id);
+    private record Column(String field, String name, Function<Team, Object> value) {
     }
 }
@@ -0,0 +1,21 @@
+-- Initial schema. IF NOT EXISTS keeps this safe on databases Hibernate created before
+-- migrations were introduced: Flyway baselines those at version 0 and runs this on top.
+CREATE SEQUENCE IF NOT EXISTS teams_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS teams (
+    id              bigint       NOT NULL PRIMARY KEY,
+    name            varchar(255) NOT NULL,
+    nationality     varchar(255) NOT NULL,
+    founded_year    integer,
+    team_principal  varchar(255),
+    headquarters    varchar(255),
+    primary_color   varchar(255),
+    secondary_color varchar(255),
+    description     varchar(255),
+    website         varchar(255),
+    version         bigint       NOT NULL DEFAULT 0
+);
+
+-- Ids come from the pooled sequence (blocks of 50). On databases that predate it, move the
+-- sequence past the ids the old identity column already handed out.
+SELECT setval('teams_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM teams_seq))) FROM teams HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,73 @@
+package com.example;
+
+import com.example.querycount.QueryCounts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PUT and DELETE write the row with a single statement, never reading it first. The other two are
+// the change log's advisory lock and entry (see ChangeFeed).
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class TeamWriteQueryCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void replaceRunsOneStatementForTheRowAndTwoForTheChangeLog() throws Exception {
+        long id = create();
+        QueryCounts.assertExactly(3, () -> mockMvc.perform(put("/api/teams/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Williams","nationality":"British","foundedYear":1977}
+                                """))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteRunsOneStatementForTheRowAndTwoForTheChangeLog() throws Exception {
+        long id = create();
+        QueryCounts.assertExactly(3, () -> mockMvc.perform(delete("/api/teams/" + id))
+                .andExpect(status().is2xxSuccessful()));
+    }
+
+    private long create() throws Exception {
+        String body = mockMvc.perform(post("/api/teams")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Williams","nationality":"British"}
+                                """))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
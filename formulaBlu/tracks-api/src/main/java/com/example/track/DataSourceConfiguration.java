@@ -0,0 +1,52 @@
+package com.example.track;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// The DataSource JPA, Flyway and the change feed share. Everything runs on the primary pool;
+// with read-replica.url set, read-only transactions run on the replica pool instead (see
+// ReplicaRoutingDataSource). The proxy only takes a connection at the first statement, once the
+// transaction has marked it read-only, and none for a transaction that runs no SQL at all.
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Same credentials as the primary
+    @Bean
+    @ConditionalOnProperty("read-replica.url")
+    @ConfigurationProperties("read-replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, @Value("${read-replica.url}") String url) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 CollectionVersion collectionVersion,
+                                 @Value("${read-replica.sticky-window:0s}") Duration stickyWindow) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        replica.ifAvailable(pool -> dataSource.setReadOnlyDataSource(
+                new ReplicaRoutingDataSource(primary, pool, collectionVersion, stickyWindow)));
+        return dataSource;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.track;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reads of the change log for ReactiveChangeFeed; events are still appended through ChangeEventRepository
+@Repository
+public interface ReactiveChangeEventRepository extends R2dbcRepository<ChangeEvent, Long> {
+    
+    // Events after the given sequence number, oldest first
+    Flux<ChangeEvent> findBySeqGreaterThanOrderBySeqAsc(Long after, Limit limit);
+    
+    // Events after the first sequence number up to and including the second, oldest first
+    Flux<ChangeEvent> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(Long after, Long to, Limit limit);
+    
+    @Query("select coalesce(max(seq), 0) from change_log")
+    Mono<Long> findLatestSeq();
+}
@@ -0,0 +1,195 @@
+package com.example.track;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DurationFormat;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// TrackController's API for the reactive profile, with the same paths, ETags and status codes
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/tracks")
+@CrossOrigin(origins = "*")
+public class ReactiveTrackController {
+
+    // Body bytes the import reader may have requested ahead of the rows it has parsed
+    private static final int IMPORT_DEMAND = 16;
+
+    @Autowired
+    private ReactiveTrackService trackService;
+
+    @Autowired
+    private CollectionVersion collectionVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveChangeFeed changeFeed;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Track>>> getAllTracks(@RequestParam(defaultValue = "0") Long after,
+                                                          @RequestParam(defaultValue = "" + TrackService.DEFAULT_PAGE_SIZE) int limit,
+                                                          ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        int pageSize = Math.clamp(limit, 1, TrackService.MAX_PAGE_SIZE);
+        return trackService.getAllTracks(after, pageSize).collectList().map(tracks -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+            if (tracks.size() == pageSize) {
+                response.header(TrackController.NEXT_CURSOR_HEADER, String.valueOf(tracks.getLast().getId()));
+            }
+            return response.body(tracks);
+        });
+    }
+
+    // Each row is encoded and written as it is read, with backpressure from the client down to the database
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Track>>> streamAllTracks(ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(trackService.streamAllTracks()));
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<List<Track>>> getTracksByIds(@RequestParam List<Long> ids, ServerWebExchange exchange) {
+        if (ids.size() > TrackService.MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return trackService.getTracksByIds(ids).collectList().map(ResponseEntity::ok);
+    }
+
+    // WebFlux answers 304 itself when If-None-Match matches the ETag of the returned entity
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Track>> getTrackById(@PathVariable Long id) {
+        return trackService.getTrackById(id)
+                .map(track -> ResponseEntity.ok().eTag("W/\"" + track.getVersion() + "\"").body(track))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/country/{country}")
+    public Mono<List<Track>> getTracksByCountry(@PathVariable String country, ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return trackService.getTracksByCountry(country).collectList();
+    }
+
+    @GetMapping("/search")
+    public Mono<List<Track>> searchTracksByName(@RequestParam String name,
+                                                @RequestParam(defaultValue = "" + TrackService.DEFAULT_SEARCH_LIMIT) int limit,
+                                                ServerWebExchange exchange) {
+        if (collectionVersion.checkNotModified(exchange)) {
+            return Mono.empty();
+        }
+        return trackService.searchTracksByName(name, Math.clamp(limit, 1, TrackService.MAX_SEARCH_LIMIT)).collectList();
+    }
+
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<ChangeEvent>>> streamChanges(@RequestParam(required = false) Long after,
+                                                                            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeFeed.stream(lastEventId != null ? lastEventId : after));
+    }
+
+    // Long poll, e.g. ?after=42&wait=30s: the events after the given sequence number as a JSON array,
+    // answered as soon as there are any and empty after wait (capped at the stream timeout)
+    @GetMapping(path = "/changes", params = "wait", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<ChangeEvent>>> pollChanges(@RequestParam(required = false) Long after, @RequestParam @DurationFormat(style = DurationFormat.Style.SIMPLE) Duration wait) {
+        return changeFeed.poll(after, wait).map(events -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(events));
+    }
+
+    @PostMapping
+    public Mono<Track> createTrack(@RequestBody Track track) {
+        return trackService.saveTrack(track);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Track>> updateTrack(@PathVariable Long id, @RequestBody Track track) {
+        return trackService.updateTrack(id, track)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // JSON merge patch: only the fields present in the body are written, null clears a field.
+    // Send the current version along to have the patch rejected if someone else got there first.
+    @PatchMapping(path = "/{id}", consumes = {TrackController.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Track>> patchTrack(@PathVariable Long id, @RequestBody ObjectNode patch) throws JsonProcessingException {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        return trackService.patchTrack(id, objectMapper.treeToValue(patch, Track.class), fields)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTrack(@PathVariable Long id) {
+        return trackService.deleteTrack(id)
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    // Bulk import, one track per line. The body is parsed as it arrives, on the thread running the import.
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<Map<String, Integer>> importTracksNdjson(@RequestBody Flux<DataBuffer> body) {
+        return trackService.importTracks(() -> objectMapper.readerFor(Track.class)
+                        .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)))
+                .map(imported -> Map.of("imported", imported));
+    }
+
+    // Bulk import from CSV with a header row, e.g. name,country,city,length,...
+    @PostMapping(path = "/import", consumes = TrackController.TEXT_CSV_VALUE)
+    public Mono<Map<String, Integer>> importTracksCsv(@RequestBody Flux<DataBuffer> body) {
+        return trackService.importTracks(() -> TrackController.CSV_READER
+                        .readValues(DataBufferUtils.subscriberInputStream(body, IMPORT_DEMAND)))
+                .map(imported -> Map.of("imported", imported));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+
+    // e.g. a patch that clears a required field
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<Void> handleConstraintViolation() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleStaleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
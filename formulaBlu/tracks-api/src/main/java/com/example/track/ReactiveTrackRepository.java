@@ -0,0 +1,45 @@
+package com.example.track;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// TrackRepository's reads over R2DBC, for the reactive profile. Writes stay with the JPA repository.
+// R2DBC does not take JPA's @Id for the identifier, so lookups by id are derived queries as well.
+@Repository
+public interface ReactiveTrackRepository extends R2dbcRepository<Track, Long> {
+    Mono<Track> findOneById(Long id);
+    Flux<Track> findByIdIn(Collection<Long> ids);
+    Flux<Track> findByCountry(String country);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query("""
+            select * from tracks t
+            where lower(t.name) like :pattern
+               or :term <% lower(t.name)
+            order by word_similarity(:term, lower(t.name)) desc, t.id
+            limit :limit
+            """)
+    Flux<Track> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query("""
+            select * from tracks t
+            where lower(t.name) like :prefix
+            order by t.name, t.id
+            limit :limit
+            """)
+    Flux<Track> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of tracks after the given id
+    Flux<Track> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // The whole table in id order, rows decoded as the subscriber asks for them
+    Flux<Track> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,92 @@
+package com.example.track;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// TrackService for the reactive profile. Reads are R2DBC queries that hold no thread while the
+// database works. Writes call TrackService itself on the jdbc scheduler, so they keep its single
+// transactional path: change log, collection version and cache eviction.
+@Service
+@Profile("reactive")
+public class ReactiveTrackService {
+
+    @Autowired
+    private ReactiveTrackRepository trackRepository;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private Scheduler jdbcScheduler;
+
+    public Flux<Track> getAllTracks(Long after, int limit) {
+        return trackRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    public Flux<Track> streamAllTracks() {
+        return trackRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Track> getTracksByIds(Collection<Long> ids) {
+        return trackRepository.findByIdIn(ids);
+    }
+
+    public Mono<Track> getTrackById(Long id) {
+        return trackRepository.findOneById(id);
+    }
+
+    public Flux<Track> getTracksByCountry(String country) {
+        return trackRepository.findByCountry(country);
+    }
+
+    public Flux<Track> searchTracksByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return Flux.empty();
+        }
+        if (term.length() < 3) {
+            return trackRepository.searchByNamePrefix(TrackService.escapeLike(term) + "%", limit);
+        }
+        return trackRepository.searchByName(term, "%" + TrackService.escapeLike(term) + "%", limit);
+    }
+
+    public Mono<Track> saveTrack(Track track) {
+        return blocking(() -> trackService.saveTrack(track));
+    }
+
+    public Mono<Track> updateTrack(Long id, Track track) {
+        return blocking(() -> trackService.updateTrack(id, track)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Track> patchTrack(Long id, Track values, Set<String> fields) {
+        return blocking(() -> trackService.patchTrack(id, values, fields)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Boolean> deleteTrack(Long id) {
+        return blocking(() -> trackService.deleteTrack(id));
+    }
+
+    // Runs on the jdbc scheduler, the rows are read from the request body as the import goes
+    public Mono<Integer> importTracks(Callable<MappingIterator<Track>> rows) {
+        return blocking(() -> {
+            try (MappingIterator<Track> iterator = rows.call()) {
+                return trackService.importTracks(iterator);
+            }
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.track;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Read-your-writes with a read replica. Every write answers with a cookie that expires after
+// read-replica.sticky-window; requests carrying it read from the primary, whichever instance
+// serves them, so a client sees its own writes before the replica has replayed them.
+// Streamed bodies are written on another thread after this filter returns and read from the replica.
+@Component
+@ConditionalOnProperty("read-replica.url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "read-primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    @Value("${read-replica.sticky-window}")
+    private Duration stickyWindow;
+
+    // Whether the request on this thread has to read from the primary
+    static boolean primaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceil(stickyWindow.toMillis() / 1000.0));
+            response.addCookie(cookie);
+        } else if (WebUtils.getCookie(request, COOKIE_NAME) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+}
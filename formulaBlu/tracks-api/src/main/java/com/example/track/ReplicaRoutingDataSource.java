@@ -0,0 +1,37 @@
+package com.example.track;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Where read-only transactions run: on the replica, unless they have to see a recent write.
+// That is the client's own write (see ReadYourWritesFilter), and any write made through this
+// instance within the sticky window: caches, ETags and encoded bodies here are keyed by
+// CollectionVersion, which moves on at commit, and filled from a replica still behind that
+// commit they would hold the old rows under the new version until the next write.
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private final CollectionVersion collectionVersion;
+
+    private final long stickyWindowMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, CollectionVersion collectionVersion, Duration stickyWindow) {
+        this.collectionVersion = collectionVersion;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        // Safe in the constructor because the class is final: no subclass sees itself half built
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean recentWrite = System.currentTimeMillis() - collectionVersion.lastModified() < stickyWindowMillis;
+        return recentWrite || ReadYourWritesFilter.primaryRequired() ? PRIMARY : REPLICA;
+    }
+}
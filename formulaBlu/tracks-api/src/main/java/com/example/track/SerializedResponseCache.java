@@ -0,0 +1,153 @@
+package com.example.track;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Encoded bodies of the hot list endpoints, keyed by query. An entry is only served while the
+// collection is still at the version it was encoded under, so any write retires them all; writes
+// through other instances do too once ChangeFeed sees the shared log move. As a backstop for writes
+// that bypass the log, entries also expire serialized-cache.expire-after-write after encoding.
+// A hit is written out as stored: no query, no entities and no Jackson. Bodies of at least
+// serialized-cache.gzip-min-size are kept gzipped as well, for clients that accept it.
+@Component
+public class SerializedResponseCache {
+    
+    private final CollectionVersion collectionVersion;
+    
+    private final ObjectMapper objectMapper;
+    
+    private final int gzipMinSize;
+    
+    private final Cache<String, Body> bodies;
+    
+    public SerializedResponseCache(CollectionVersion collectionVersion, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                   @Value("${serialized-cache.max-size}") DataSize maxSize,
+                                   @Value("${serialized-cache.gzip-min-size}") DataSize gzipMinSize,
+                                   @Value("${serialized-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.collectionVersion = collectionVersion;
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Body body) -> body.size())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "serializedResponses");
+    }
+    
+    public <T> Body get(String key, Supplier<T> value) {
+        return get(key, value, ignored -> HttpHeaders.EMPTY);
+    }
+    
+    // The body for key at the current collection version, calling value and encoding only on a miss.
+    // The version is read first, so a write landing during the encode leaves an entry that is already stale.
+    public <T> Body get(String key, Supplier<T> value, Function<T, HttpHeaders> headers) {
+        long version = collectionVersion.version();
+        Body body = bodies.getIfPresent(key);
+        if (body != null && body.version() == version) {
+            return body;
+        }
+        T result = value.get();
+        body = encode(version, result, headers.apply(result));
+        bodies.put(key, body);
+        return body;
+    }
+    
+    // Gzipped bytes go to clients that accept them; Vary keeps shared caches from mixing the two up.
+    // Endpoints whose URL also serves other formats name the request headers that choose between them.
+    public ResponseEntity<byte[]> respond(Body body, WebRequest request, String... varyBy) {
+        boolean gzip = body.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(body.headers())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.VARY, varyBy);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+    
+    // Whether gzip is listed with a q-value above 0, or not listed and covered by a "*" that is;
+    // e.g. "gzip;q=0" or "*;q=0" refuses it
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    quality = quality(parameter.substring(2));
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+    
+    // A malformed q-value counts as 0, so the plain body is sent
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private Body encode(long version, Object value, HttpHeaders headers) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Body(version, json, json.length >= gzipMinSize ? gzip(json) : null, headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    public record Body(long version, byte[] json, byte[] gzip, HttpHeaders headers) {
+    
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "tracks")
@@ -13,7 +14,8 @@ import lombok.NoArgsConstructor;
 public class Track {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracks_seq")
+    @SequenceGenerator(name = "tracks_seq", sequenceName = "tracks_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -33,4 +35,9 @@ public class Track {
     
     @Column(name = "first_grand_prix")
     private Integer firstGrandPrix;
+    
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
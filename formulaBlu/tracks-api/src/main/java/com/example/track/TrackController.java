@@ -1,40 +1,160 @@
 package com.example.track;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/tracks")
 @CrossOrigin(origins = "*")
 public class TrackController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    static final String TEXT_CSV_VALUE = "text/csv";
+    
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
+    // CSV import rows: the header line names the columns, empty cells become null
+    static final ObjectReader CSV_READER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build()
+            .readerFor(Track.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    
     @Autowired
     private TrackService trackService;
     
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+    
+    // Served from the encoded bytes until the next write, see SerializedResponseCache
     @GetMapping
-    public List<Track> getAllTracks() {
-        return trackService.getAllTracks();
+    public ResponseEntity<byte[]> getAllTracks(@RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "" + TrackService.DEFAULT_PAGE_SIZE) int limit,
+                                               WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        int pageSize = Math.clamp(limit, 1, TrackService.MAX_PAGE_SIZE);
+        SerializedResponseCache.Body body = serializedResponseCache.get("all:" + after + ":" + pageSize,
+                () -> trackService.getAllTracks(after, pageSize),
+                tracks -> nextCursor(tracks, pageSize));
+        return serializedResponseCache.respond(body, request, HttpHeaders.ACCEPT);
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTracks(WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> trackService.streamAllTracks(track -> {
+            try {
+                writer.writeValue(out, track);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Streamed, so never stored by a cache on the way; the JSON pages share the URL, hence Vary
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+    
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Track>> getTracksByIds(@RequestParam List<Long> ids, WebRequest request) {
+        if (ids.size() > TrackService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(trackService.getTracksByIds(ids));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Track> getTrackById(@PathVariable Long id) {
+    public ResponseEntity<Track> getTrackById(@PathVariable Long id, WebRequest request) {
         Optional<Track> track = trackService.getTrackById(id);
+        if (track.isPresent() && request.checkNotModified("W/\"" + track.get().getVersion() + "\"")) {
+            return null;
+        }
         return track.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/country/{country}")
-    public List<Track> getTracksByCountry(@PathVariable String country) {
+    public List<Track> getTracksByCountry(@PathVariable String country, WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
         return trackService.getTracksByCountry(country);
     }
     
     @GetMapping("/search")
-    public List<Track> searchTracksByName(@RequestParam String name) {
-        return trackService.searchTracksByName(name);
+    public List<Track> searchTracksByName(@RequestParam String name,
+                                          @RequestParam(defaultValue = "" + TrackService.DEFAULT_SEARCH_LIMIT) int limit,
+                                          WebRequest request) {
+        if (collectionVersion.checkNotModified(request)) {
+            return null;
+        }
+        return trackService.searchTracksByName(name, Math.clamp(limit, 1, TrackService.MAX_SEARCH_LIMIT));
+    }
+    
+    // Server-Sent Events, one per write. Resume with ?after={seq} or Last-Event-ID, otherwise only new writes are sent.
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long after,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
     }
     
     @PostMapping
@@ -44,19 +164,67 @@ public class TrackController {
     
     @PutMapping("/{id}")
     public ResponseEntity<Track> updateTrack(@PathVariable Long id, @RequestBody Track track) {
-        if (trackService.getTrackById(id).isPresent()) {
-            track.setId(id);
-            return ResponseEntity.ok(trackService.saveTrack(track));
-        }
-        return ResponseEntity.notFound().build();
+        return trackService.updateTrack(id, track)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // JSON merge patch: only the fields present in the body are written, null clears a field.
+    // Send the current version along to have the patch rejected if someone else got there first.
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Track> patchTrack(@PathVariable Long id, @RequestBody ObjectNode patch) throws JsonProcessingException {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        return trackService.patchTrack(id, objectMapper.treeToValue(patch, Track.class), fields)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTrack(@PathVariable Long id) {
-        if (trackService.getTrackById(id).isPresent()) {
-            trackService.deleteTrack(id);
+        if (trackService.deleteTrack(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
+    
+    // Bulk import, one track per line
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Map<String, Integer> importTracksNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Track> rows = objectMapper.readerFor(Track.class).readValues(body)) {
+            return Map.of("imported", trackService.importTracks(rows));
+        }
+    }
+    
+    // Bulk import from CSV with a header row, e.g. name,country,city,length,...
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public Map<String, Integer> importTracksCsv(InputStream body) throws IOException {
+        try (MappingIterator<Track> rows = CSV_READER.readValues(body)) {
+            return Map.of("imported", trackService.importTracks(rows));
+        }
+    }
+    
+    private static HttpHeaders nextCursor(List<Track> tracks, int pageSize) {
+        HttpHeaders headers = new HttpHeaders();
+        if (tracks.size() == pageSize) {
+            headers.set(NEXT_CURSOR_HEADER, String.valueOf(tracks.getLast().getId()));
+        }
+        return headers;
+    }
+    
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleMalformedImport(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
+    }
+    
+    // e.g. a patch that clears a required field
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<Void> handleConstraintViolation() {
+        return ResponseEntity.badRequest().build();
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleStaleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
@@ -1,12 +1,49 @@
 package com.example.track;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TrackRepository extends JpaRepository<Track, Long> {
     List<Track> findByCountry(String country);
-    List<Track> findByNameContainingIgnoreCase(String name);
+
+    // Substring and fuzzy matches served by the trigram index (see db/migration/V2__name_search_indexes.sql), best match first
+    @Query(value = """
+            select * from tracks t
+            where lower(t.name) like :pattern
+               or :term <% lower(t.name)
+            order by word_similarity(:term, lower(t.name)) desc, t.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Track> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Prefix matches for terms shorter than a trigram
+    @Query(value = """
+            select * from tracks t
+            where lower(t.name) like :prefix
+            order by t.name, t.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Track> searchByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Keyset pagination: next page of tracks after the given id
+    List<Track> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor-backed stream over the whole table, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Track> streamAllByOrderByIdAsc();
+    // Single-statement delete, returns the number of rows removed
+    @Modifying
+    @Query("delete from Track d where d.id = :id")
+    int removeById(@Param("id") Long id);
 }
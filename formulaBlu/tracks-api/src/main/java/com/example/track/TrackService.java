@@ -1,38 +1,227 @@
 package com.example.track;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class TrackService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    
+    // Columns a PUT or PATCH writes, keyed by the JSON field that carries the new value
+    private static final List<Column> COLUMNS = List.of(
+            new Column("name", "name", Track::getName),
+            new Column("country", "country", Track::getCountry),
+            new Column("city", "city", Track::getCity),
+            new Column("length", "length", Track::getLength),
+            new Column("turns", "turns", Track::getTurns),
+            new Column("description", "description", Track::getDescription),
+            new Column("firstGrandPrix", "first_grand_prix", Track::getFirstGrandPrix));
+    
     @Autowired
     private TrackRepository trackRepository;
     
-    public List<Track> getAllTracks() {
-        return trackRepository.findAll();
+    @Autowired
+    private CollectionVersion collectionVersion;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+    
+    @Transactional(readOnly = true)
+    public List<Track> getAllTracks(Long after, int limit) {
+        return trackRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+    
+    // Hands every track to the consumer one at a time and detaches it again,
+    // so the persistence context never holds more than a single row
+    @Transactional(readOnly = true)
+    public void streamAllTracks(Consumer<Track> consumer) {
+        try (Stream<Track> tracks = trackRepository.streamAllByOrderByIdAsc()) {
+            tracks.forEach(track -> {
+                consumer.accept(track);
+                entityManager.detach(track);
+            });
+        }
     }
     
+    @Transactional(readOnly = true)
+    public List<Track> getTracksByIds(Collection<Long> ids) {
+        return trackRepository.findAllById(ids);
+    }
+    
+    @Cacheable("tracks")
+    @Transactional(readOnly = true)
     public Optional<Track> getTrackById(Long id) {
         return trackRepository.findById(id);
     }
     
+    @Cacheable("tracksByCountry")
+    @Transactional(readOnly = true)
     public List<Track> getTracksByCountry(String country) {
         return trackRepository.findByCountry(country);
     }
     
-    public List<Track> searchTracksByName(String name) {
-        return trackRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(readOnly = true)
+    public List<Track> searchTracksByName(String name, int limit) {
+        String term = name.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        if (term.length() < 3) {
+            return trackRepository.searchByNamePrefix(escapeLike(term) + "%", limit);
+        }
+        return trackRepository.searchByName(term, "%" + escapeLike(term) + "%", limit);
     }
     
+    // The previous country of an updated track is unknown here, so the derived list is cleared wholesale
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "tracks", key = "#result.id"),
+            @CacheEvict(cacheNames = "tracksByCountry", allEntries = true)
+    })
+    @Transactional
     public Track saveTrack(Track track) {
-        return trackRepository.save(track);
+        Track saved = trackRepository.save(track);
+        changeFeed.append(ChangeEvent.Operation.UPSERT, saved.getId(), saved.getVersion());
+        collectionVersion.bump();
+        return saved;
+    }
+    
+    // Replaces every column, empty if there is no such track
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "tracks", key = "#id"),
+            @CacheEvict(cacheNames = "tracksByCountry", allEntries = true)
+    })
+    public Optional<Track> updateTrack(Long id, Track track) {
+        return update(id, track, COLUMNS);
+    }
+    
+    // Writes only the named fields, taking their values from the given track
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "tracks", key = "#id"),
+            @CacheEvict(cacheNames = "tracksByCountry", allEntries = true)
+    })
+    public Optional<Track> patchTrack(Long id, Track values, Set<String> fields) {
+        return update(id, values, COLUMNS.stream().filter(column -> fields.contains(column.field())).toList());
+    }
+    
+    // Returns false if there was no such track
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "tracks", key = "#id"),
+            @CacheEvict(cacheNames = "tracksByCountry", allEntries = true)
+    })
+    public boolean deleteTrack(Long id) {
+        if (trackRepository.removeById(id) == 0) {
+            return false;
+        }
+        changeFeed.append(ChangeEvent.Operation.DELETE, id, null);
+        collectionVersion.bump();
+        return true;
+    }
+    
+    // One statement instead of read-then-merge: writes the columns and bumps the version if the row
+    // exists and, when the caller sent a version, still has it. The new row comes back via RETURNING.
+    // Only a failed versioned write pays for a second query, to tell a stale version from a missing row.
+    @SuppressWarnings("unchecked")
+    private Optional<Track> update(Long id, Track values, List<Column> columns) {
+        StringBuilder sql = new StringBuilder("update tracks set ");
+        columns.forEach(column -> sql.append(column.name()).append(" = :").append(column.field()).append(", "));
+        sql.append("version = version + 1 where id = :id");
+        if (values.getVersion() != null) {
+            sql.append(" and version = :version");
+        }
+        Query query = entityManager.createNativeQuery(sql.append(" returning *").toString(), Track.class)
+                .setParameter("id", id);
+        columns.forEach(column -> query.setParameter(column.field(), column.value().apply(values)));
+        if (values.getVersion() != null) {
+            query.setParameter("version", values.getVersion());
+        }
+        Optional<Track> updated = ((List<Track>) query.getResultList()).stream().findFirst();
+        if (updated.isEmpty() && values.getVersion() != null && trackRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Track " + id + " is no longer at version " + values.getVersion());
+        }
+        updated.ifPresent(track -> {
+            changeFeed.append(ChangeEvent.Operation.UPSERT, track.getId(), track.getVersion());
+            collectionVersion.bump();
+        });
+        return updated;
+    }
+    
+    // Bulk insert. Ids come from the pooled sequence, so Hibernate sends each flush as one
+    // JDBC batch; clearing after every batch keeps memory flat however long the stream is.
+    // All rows go in one transaction: a malformed row rolls the whole import back.
+    @Transactional(rollbackFor = IOException.class)
+    @CacheEvict(cacheNames = {"tracks", "tracksByCountry"}, allEntries = true)
+    public int importTracks(MappingIterator<Track> rows) throws IOException {
+        int imported = 0;
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (rows.hasNextValue()) {
+            Track track = rows.nextValue();
+            track.setId(null);
+            track.setVersion(null);
+            entityManager.persist(track);
+            batch.add(track.getId());
+            if (++imported % batchSize == 0) {
+                flushImportBatch(batch);
+            }
+        }
+        flushImportBatch(batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                collectionVersion.bump();
+            }
+        });
+        return imported;
+    }
+    
+    // Sends the batch's inserts, logs them with one statement and detaches them
+    private void flushImportBatch(List<Long> ids) {
+        entityManager.flush();
+        changeFeed.appendUpserts(ids);
+        entityManager.clear();
+        ids.clear();
+    }
+    
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
-    public void deleteTrack(Long id) {
-        trackRepository.deleteById(id);
+    private record Column(String field, String name, Function<Track, Object> value) {
     }
 }
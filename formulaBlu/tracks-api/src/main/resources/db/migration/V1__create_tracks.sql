@@ -0,0 +1,19 @@
+-- Initial schema. IF NOT EXISTS keeps this safe on databases Hibernate created before
+-- migrations were introduced: Flyway baselines those at version 0 and runs this on top.
+CREATE SEQUENCE IF NOT EXISTS tracks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tracks (
+    id               bigint           NOT NULL PRIMARY KEY,
+    name             varchar(255)     NOT NULL,
+    country          varchar(255)     NOT NULL,
+    city             varchar(255)     NOT NULL,
+    length           double precision,
+    turns            integer,
+    description      varchar(255),
+    first_grand_prix integer,
+    version          bigint           NOT NULL DEFAULT 0
+);
+
+-- Ids come from the pooled sequence (blocks of 50). On databases that predate it, move the
+-- sequence past the ids the old identity column already handed out.
+SELECT setval('tracks_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM tracks_seq))) FROM tracks HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring and fuzzy name search
+CREATE INDEX IF NOT EXISTS tracks_name_trgm_idx ON tracks USING gin (lower(name) gin_trgm_ops);
+
+-- Prefix search for terms too short to form a trigram
+CREATE INDEX IF NOT EXISTS tracks_name_prefix_idx ON tracks (lower(name) text_pattern_ops);